@@ -0,0 +1,130 @@
+package com.mrcrayfish.configured.benchmark;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+import com.mrcrayfish.configured.impl.ForgeConfig;
+import com.mrcrayfish.configured.util.ConfigHelper;
+import net.minecraft.util.text.TextFormatting;
+import net.minecraftforge.common.ForgeConfigSpec;
+import net.minecraftforge.fml.ModContainer;
+import net.minecraftforge.fml.config.ModConfig;
+import net.minecraftforge.forgespi.language.IModInfo;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates synthetic configs that are shaped like the configs of real mods, so the hot paths of
+ * Configured can be benchmarked outside of the game.
+ */
+public class BenchmarkConfigs
+{
+    public static final String MOD_ID = "configured_benchmark";
+
+    private static final int VALUES_PER_GROUP = 25;
+    private static final int GROUPS_PER_CATEGORY = 20;
+    private static final AtomicInteger FILE_COUNTER = new AtomicInteger();
+
+    /**
+     * Creates a spec with the given amount of values. Values are split into categories which
+     * contain groups of values, and cycle through all value types supported by config screens.
+     *
+     * @param valueCount the amount of values in the spec
+     * @return a new spec
+     */
+    public static ForgeConfigSpec createSpec(int valueCount)
+    {
+        ForgeConfigSpec.Builder builder = new ForgeConfigSpec.Builder();
+        for(int i = 0; i < valueCount; i++)
+        {
+            if(i % VALUES_PER_GROUP == 0)
+            {
+                if(i > 0) builder.pop(2);
+                int group = i / VALUES_PER_GROUP;
+                builder.comment("Category " + group / GROUPS_PER_CATEGORY).push("category_" + group / GROUPS_PER_CATEGORY);
+                builder.comment("Group " + group).push("group_" + group);
+            }
+            String name = "value" + i;
+            builder.comment("This is a generated value used for benchmarking. It has the index " + i);
+            switch(i % 7)
+            {
+                case 0:
+                    builder.define(name + "Boolean", false);
+                    break;
+                case 1:
+                    builder.defineInRange(name + "Int", i, 0, Integer.MAX_VALUE);
+                    break;
+                case 2:
+                    builder.defineInRange(name + "Double", 0.5, 0.0, 1.0);
+                    break;
+                case 3:
+                    builder.defineInRange(name + "Long", (long) i, 0L, Long.MAX_VALUE);
+                    break;
+                case 4:
+                    builder.defineEnum(name + "Enum", TextFormatting.WHITE);
+                    break;
+                case 5:
+                    builder.define(name + "String", "value_" + i);
+                    break;
+                default:
+                    builder.defineList(name + "List", createDefaultList(i), o -> o instanceof String);
+                    break;
+            }
+        }
+        if(valueCount > 0) builder.pop(2);
+        return builder.build();
+    }
+
+    private static List<String> createDefaultList(int seed)
+    {
+        List<String> list = new ArrayList<>();
+        for(int i = 0; i < 10; i++)
+        {
+            list.add("minecraft:item_" + (seed + i));
+        }
+        return list;
+    }
+
+    /**
+     * Creates a client config for the given spec and loads it with in memory data. Nothing is
+     * written to the disk when the config is saved.
+     *
+     * @param spec the spec of the config
+     * @return a Configured config wrapping a loaded mod config
+     */
+    public static ForgeConfig createConfig(ForgeConfigSpec spec)
+    {
+        CommentedConfig data = CommentedConfig.inMemory();
+        spec.correct(data);
+        spec.setConfig(data);
+        ModConfig modConfig = new ModConfig(ModConfig.Type.CLIENT, spec, new BenchmarkModContainer(), MOD_ID + "_" + FILE_COUNTER.getAndIncrement() + ".toml");
+        ConfigHelper.setConfigData(modConfig, data);
+        return new ForgeConfig(modConfig, spec);
+    }
+
+    /**
+     * A mod container that is not backed by a mod file. Only the mod id is available.
+     */
+    private static class BenchmarkModContainer extends ModContainer
+    {
+        private BenchmarkModContainer()
+        {
+            super((IModInfo) Proxy.newProxyInstance(IModInfo.class.getClassLoader(), new Class[]{IModInfo.class}, (proxy, method, args) -> {
+                return method.getName().equals("getModId") ? MOD_ID : null;
+            }));
+        }
+
+        @Override
+        public boolean matches(Object mod)
+        {
+            return mod == this;
+        }
+
+        @Override
+        public Object getMod()
+        {
+            return this;
+        }
+    }
+}
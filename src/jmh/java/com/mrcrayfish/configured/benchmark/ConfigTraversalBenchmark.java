@@ -0,0 +1,93 @@
+package com.mrcrayfish.configured.benchmark;
+
+import com.mrcrayfish.configured.api.IConfigEntry;
+import com.mrcrayfish.configured.api.IConfigValue;
+import com.mrcrayfish.configured.impl.ForgeConfig;
+import com.mrcrayfish.configured.impl.ForgeFolderEntry;
+import com.mrcrayfish.configured.util.ConfigHelper;
+import net.minecraftforge.common.ForgeConfigSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures walking the config tree, which happens every time a config screen is opened.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigTraversalBenchmark
+{
+    @Param({"100", "1000", "10000", "100000"})
+    public int valueCount;
+
+    private ForgeConfigSpec spec;
+    private ForgeConfig config;
+    private IConfigEntry builtRoot;
+
+    @Setup
+    public void setup()
+    {
+        this.spec = BenchmarkConfigs.createSpec(this.valueCount);
+        this.config = BenchmarkConfigs.createConfig(this.spec);
+        this.builtRoot = this.config.getRoot();
+        ConfigHelper.gatherAllConfigValues(this.builtRoot);
+    }
+
+    @Benchmark
+    public List<IConfigValue<?>> gatherAllConfigValues()
+    {
+        return ConfigHelper.gatherAllConfigValues(this.config);
+    }
+
+    @Benchmark
+    public List<IConfigValue<?>> gatherAllConfigValuesBuiltTree()
+    {
+        return ConfigHelper.gatherAllConfigValues(this.builtRoot);
+    }
+
+    @Benchmark
+    public boolean isModified()
+    {
+        return ConfigHelper.isModified(this.config);
+    }
+
+    @Benchmark
+    public List<IConfigEntry> getChildrenRoot()
+    {
+        return new ForgeFolderEntry("Root", this.spec.getValues(), this.spec, true).getChildren();
+    }
+
+    @Benchmark
+    public void getChildrenAll(Blackhole blackhole)
+    {
+        visit(new ForgeFolderEntry("Root", this.spec.getValues(), this.spec, true), blackhole);
+    }
+
+    private static void visit(IConfigEntry entry, Blackhole blackhole)
+    {
+        for(IConfigEntry child : entry.getChildren())
+        {
+            blackhole.consume(child);
+            if(!child.isLeaf())
+            {
+                visit(child, blackhole);
+            }
+        }
+    }
+}
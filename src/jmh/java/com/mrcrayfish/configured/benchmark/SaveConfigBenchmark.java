@@ -0,0 +1,74 @@
+package com.mrcrayfish.configured.benchmark;
+
+import com.mrcrayfish.configured.api.IConfigEntry;
+import com.mrcrayfish.configured.api.IConfigValue;
+import com.mrcrayfish.configured.impl.ForgeConfig;
+import com.mrcrayfish.configured.util.ConfigHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures saving a config after the user has edited values in the config screen. The tree is
+ * rebuilt and edited before every invocation so only the save itself is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveConfigBenchmark
+{
+    @Param({"100", "1000", "10000", "100000"})
+    public int valueCount;
+
+    @Param({"1", "100"})
+    public int editCount;
+
+    private ForgeConfig config;
+    private IConfigEntry root;
+
+    @Setup(Level.Trial)
+    public void setupConfig()
+    {
+        this.config = BenchmarkConfigs.createConfig(BenchmarkConfigs.createSpec(this.valueCount));
+    }
+
+    @Setup(Level.Invocation)
+    @SuppressWarnings("unchecked")
+    public void editValues()
+    {
+        this.root = this.config.getRoot();
+        List<IConfigValue<?>> values = ConfigHelper.gatherAllConfigValues(this.root);
+        int edited = 0;
+        for(int i = 0; i < values.size() && edited < this.editCount; i++)
+        {
+            IConfigValue<?> value = values.get(i);
+            if(value.get() instanceof Boolean)
+            {
+                IConfigValue<Boolean> booleanValue = (IConfigValue<Boolean>) value;
+                booleanValue.set(!booleanValue.get());
+                edited++;
+            }
+        }
+    }
+
+    @Benchmark
+    public void saveConfig()
+    {
+        this.config.saveConfig(this.root);
+    }
+}
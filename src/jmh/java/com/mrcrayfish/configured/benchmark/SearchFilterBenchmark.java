@@ -0,0 +1,85 @@
+package com.mrcrayfish.configured.benchmark;
+
+import com.mrcrayfish.configured.client.screen.ConfigScreen;
+import com.mrcrayfish.configured.client.screen.ILabelProvider;
+import com.mrcrayfish.configured.client.util.ScreenUtil;
+import com.mrcrayfish.configured.client.util.SearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the search filter of list menu screens, which runs on every key typed into the
+ * search field. Typing is simulated by filtering every prefix of the query. The indexed search
+ * keeps its state between invocations, so each invocation starts with a query that doesn't
+ * contain the previous one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchFilterBenchmark
+{
+    @Param({"100", "1000", "10000", "100000"})
+    public int valueCount;
+
+    @Param({"value12", "boolean"})
+    public String query;
+
+    private List<ILabelProvider> entries;
+    private SearchIndex<ILabelProvider> index;
+
+    @Setup
+    public void setup()
+    {
+        this.entries = new ArrayList<>();
+        for(int i = 0; i < this.valueCount; i++)
+        {
+            String label = ConfigScreen.createLabel("value" + i + (i % 2 == 0 ? "Boolean" : "String"));
+            this.entries.add(() -> label);
+        }
+        this.index = new SearchIndex<>(this.entries, entry -> true);
+    }
+
+    @Benchmark
+    public void typeQuery(Blackhole blackhole)
+    {
+        for(int i = 1; i <= this.query.length(); i++)
+        {
+            String value = this.query.substring(0, i);
+            blackhole.consume(ScreenUtil.filterByLabel(this.entries, value, entry -> true));
+        }
+    }
+
+    @Benchmark
+    public void typeQueryIndexed(Blackhole blackhole)
+    {
+        for(int i = 1; i <= this.query.length(); i++)
+        {
+            String value = this.query.substring(0, i);
+            blackhole.consume(this.index.search(value));
+            blackhole.consume(this.index.findSuggestion(value));
+        }
+    }
+
+    @Benchmark
+    public SearchIndex<ILabelProvider> buildIndex()
+    {
+        return new SearchIndex<>(this.entries, entry -> true);
+    }
+}
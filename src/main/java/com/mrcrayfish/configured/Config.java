@@ -16,10 +16,12 @@ public class Config
     public static class Client
     {
         public final ForgeConfigSpec.BooleanValue forceConfiguredMenu;
+        public final ForgeConfigSpec.BooleanValue validateConfigsOnStartup;
 
         public Client(ForgeConfigSpec.Builder builder)
         {
             this.forceConfiguredMenu = builder.comment("Forces all config menus to be overridden and generated by Configured. This requires the game to be restarted for the changes to apply.").translation("configured.config.client.force_configured_menu").define("forceConfiguredMenu", false);
+            this.validateConfigsOnStartup = builder.comment("Validates the values of all loaded configs when the game starts and logs any values that are invalid or out of range. Useful for checking the configs of a modpack.").translation("configured.config.client.validate_configs_on_startup").define("validateConfigsOnStartup", false);
         }
     }
 
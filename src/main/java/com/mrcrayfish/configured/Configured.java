@@ -1,7 +1,11 @@
 package com.mrcrayfish.configured;
 
 import com.mrcrayfish.configured.client.ClientHandler;
+import com.mrcrayfish.configured.command.BatchEditCommand;
+import com.mrcrayfish.configured.util.PerformanceMetrics;
 import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.RegisterCommandsEvent;
 import net.minecraftforge.fml.ExtensionPoint;
 import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.common.Mod;
@@ -30,7 +34,9 @@ public class Configured
             ModLoadingContext.get().registerConfig(ModConfig.Type.CLIENT, Config.testSpec, "configured_test_config.toml");
         }
         ModLoadingContext.get().registerConfig(ModConfig.Type.CLIENT, Config.clientSpec);
+        PerformanceMetrics.registerMBeans();
         FMLJavaModLoadingContext.get().getModEventBus().addListener(this::onLoadComplete);
+        MinecraftForge.EVENT_BUS.addListener(this::onRegisterCommands);
         ModLoadingContext.get().registerExtensionPoint(ExtensionPoint.DISPLAYTEST, () -> Pair.of(() -> FMLNetworkConstants.IGNORESERVERONLY, (a, b) -> true));
     }
 
@@ -42,4 +48,9 @@ public class Configured
             ClientHandler.generateConfigFactories();
         }
     }
+
+    private void onRegisterCommands(RegisterCommandsEvent event)
+    {
+        BatchEditCommand.register(event.getDispatcher());
+    }
 }
@@ -0,0 +1,67 @@
+package com.mrcrayfish.configured.api;
+
+import java.util.List;
+
+/**
+ * A change of a single config value, as received by a {@link IConfigChangeListener}. If the value
+ * was changed multiple times before listeners were notified, this holds the value before the first
+ * change and the value after the last change.
+ */
+public class ConfigChange
+{
+    private final String fileName;
+    private final List<String> path;
+    private final Object oldValue;
+    private final Object newValue;
+
+    public ConfigChange(String fileName, List<String> path, Object oldValue, Object newValue)
+    {
+        this.fileName = fileName;
+        this.path = path;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    /**
+     * @return the file name of the config the value belongs to
+     */
+    public String getFileName()
+    {
+        return this.fileName;
+    }
+
+    /**
+     * @return the full path of the value in the config
+     */
+    public List<String> getPath()
+    {
+        return this.path;
+    }
+
+    /**
+     * @return the value before it was changed
+     */
+    public Object getOldValue()
+    {
+        return this.oldValue;
+    }
+
+    /**
+     * @return the value after it was changed
+     */
+    public Object getNewValue()
+    {
+        return this.newValue;
+    }
+
+    /**
+     * Combines this change with a later change of the same value
+     *
+     * @param later the later change
+     * @return a change from the old value of this change to the new value of the later change
+     */
+    public ConfigChange merge(ConfigChange later)
+    {
+        return new ConfigChange(this.fileName, this.path, this.oldValue, later.newValue);
+    }
+}
@@ -0,0 +1,140 @@
+package com.mrcrayfish.configured.api;
+
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.ints.IntSets;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.longs.LongSets;
+import net.minecraft.util.ResourceLocation;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * An index derived from a list config value, such as a set for fast membership tests. The index is
+ * rebuilt when the list of the config value changes, which happens when the config is saved or
+ * reloaded, so it can be used without any cache invalidation. Works with any supplier of a list,
+ * including Forge's config values.
+ * <pre>{@code
+ * private static final ConfigListIndex<Set<ResourceLocation>> BLACKLIST = ConfigListIndex.ofResourceLocations(Config.COMMON.blacklist);
+ *
+ * if(BLACKLIST.get().contains(block.getRegistryName())) { ... }
+ * }</pre>
+ *
+ * @param <I> the type of the index
+ */
+public class ConfigListIndex<I> implements Supplier<I>
+{
+    private final Supplier<? extends List<?>> list;
+    private final Function<List<?>, I> factory;
+    private volatile State<I> state;
+
+    @SuppressWarnings("unchecked")
+    private <T> ConfigListIndex(Supplier<? extends List<? extends T>> list, Function<? super List<? extends T>, I> factory)
+    {
+        this.list = list;
+        this.factory = (Function<List<?>, I>) (Function<?, I>) factory;
+    }
+
+    /**
+     * Gets the index of the current list of the config value. Only the identity of the list is checked,
+     * so this is cheap as long as the list has not changed.
+     *
+     * @return the index of the list
+     */
+    @Override
+    public I get()
+    {
+        List<?> current = this.list.get();
+        State<I> state = this.state;
+        if(state == null || state.list != current)
+        {
+            state = new State<>(current, this.factory.apply(current));
+            this.state = state;
+        }
+        return state.index;
+    }
+
+    /**
+     * Creates an index using a custom factory
+     *
+     * @param list    the list config value
+     * @param factory creates the index from the list
+     */
+    public static <T, I> ConfigListIndex<I> of(Supplier<? extends List<? extends T>> list, Function<? super List<? extends T>, I> factory)
+    {
+        return new ConfigListIndex<>(list, factory);
+    }
+
+    /**
+     * Creates an index that is an unmodifiable hash set of the elements in the list
+     */
+    public static <T> ConfigListIndex<Set<T>> ofSet(Supplier<? extends List<? extends T>> list)
+    {
+        return ConfigListIndex.<T, Set<T>>of(list, elements -> Collections.unmodifiableSet(new HashSet<>(elements)));
+    }
+
+    /**
+     * Creates an index that is an unmodifiable primitive set of the numbers in the list
+     */
+    public static ConfigListIndex<IntSet> ofInts(Supplier<? extends List<? extends Number>> list)
+    {
+        return ConfigListIndex.<Number, IntSet>of(list, elements ->
+        {
+            IntSet set = new IntOpenHashSet(elements.size());
+            elements.forEach(number -> set.add(number.intValue()));
+            return IntSets.unmodifiable(set);
+        });
+    }
+
+    /**
+     * Creates an index that is an unmodifiable primitive set of the numbers in the list
+     */
+    public static ConfigListIndex<LongSet> ofLongs(Supplier<? extends List<? extends Number>> list)
+    {
+        return ConfigListIndex.<Number, LongSet>of(list, elements ->
+        {
+            LongSet set = new LongOpenHashSet(elements.size());
+            elements.forEach(number -> set.add(number.longValue()));
+            return LongSets.unmodifiable(set);
+        });
+    }
+
+    /**
+     * Creates an index that is an unmodifiable set of resource locations parsed from the strings in
+     * the list. Strings that are not valid resource locations are ignored.
+     */
+    public static ConfigListIndex<Set<ResourceLocation>> ofResourceLocations(Supplier<? extends List<? extends String>> list)
+    {
+        return ConfigListIndex.<String, Set<ResourceLocation>>of(list, elements ->
+        {
+            Set<ResourceLocation> set = new HashSet<>(elements.size());
+            for(String element : elements)
+            {
+                ResourceLocation location = ResourceLocation.tryCreate(element);
+                if(location != null)
+                {
+                    set.add(location);
+                }
+            }
+            return Collections.unmodifiableSet(set);
+        });
+    }
+
+    private static class State<I>
+    {
+        private final List<?> list;
+        private final I index;
+
+        private State(List<?> list, I index)
+        {
+            this.list = list;
+            this.index = index;
+        }
+    }
+}
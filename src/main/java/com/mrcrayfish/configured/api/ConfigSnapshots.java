@@ -0,0 +1,377 @@
+package com.mrcrayfish.configured.api;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+import com.google.common.collect.ImmutableList;
+import com.mrcrayfish.configured.util.ConfigHelper;
+import net.minecraftforge.common.ForgeConfigSpec;
+import net.minecraftforge.fml.config.ModConfig;
+import org.apache.commons.lang3.tuple.Pair;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable snapshots of Forge configs that can be read from any thread. A snapshot is published
+ * every time a config is saved, loaded or reloaded, either by Configured or by Forge, replacing the
+ * previous snapshot atomically. Values are read through handles, which find their value the first
+ * time they are read and then read it from the current snapshot without any map lookups, locking or
+ * boxing. Handles can be created before the config is registered, but must not be read before that.
+ * <pre>{@code
+ * private static final ConfigSnapshots.IntHandle MAX_ENTITIES = ConfigSnapshots.intHandle("examplemod-server.toml", "spawning.maxEntities");
+ *
+ * public void tick()
+ * {
+ *     int maxEntities = MAX_ENTITIES.get();
+ * }
+ * }</pre>
+ * Snapshots are only maintained for configs that have at least one handle that has been read. Until
+ * a server config is loaded, its handles read the default values.
+ */
+public class ConfigSnapshots
+{
+    private static final Map<String, Holder> HOLDERS = new ConcurrentHashMap<>();
+
+    public static IntHandle intHandle(String fileName, String path)
+    {
+        return new IntHandle(fileName, path);
+    }
+
+    public static LongHandle longHandle(String fileName, String path)
+    {
+        return new LongHandle(fileName, path);
+    }
+
+    public static DoubleHandle doubleHandle(String fileName, String path)
+    {
+        return new DoubleHandle(fileName, path);
+    }
+
+    public static BooleanHandle booleanHandle(String fileName, String path)
+    {
+        return new BooleanHandle(fileName, path);
+    }
+
+    public static <T> ObjectHandle<T> objectHandle(String fileName, String path)
+    {
+        return new ObjectHandle<>(fileName, path);
+    }
+
+    /**
+     * Publishes a new snapshot of the given config if snapshots are maintained for it. Called by
+     * Configured after a config has been saved or loaded.
+     *
+     * @param config the config to publish
+     */
+    public static void publish(ModConfig config)
+    {
+        Holder holder = HOLDERS.get(config.getFileName());
+        if(holder != null)
+        {
+            holder.publish(config.getConfigData());
+        }
+    }
+
+    private static Holder getHolder(String fileName)
+    {
+        return HOLDERS.computeIfAbsent(fileName, name ->
+        {
+            ModConfig config = ConfigHelper.getModConfig(name);
+            if(config == null || !(config.getSpec() instanceof ForgeConfigSpec))
+            {
+                throw new IllegalStateException("Unknown config or config is not registered yet: " + name);
+            }
+            Holder holder = new Holder(new Layout((ForgeConfigSpec) config.getSpec()));
+            holder.publish(config.getConfigData());
+            // Forge loads, reloads and syncs configs without going through Configured
+            ConfigHelper.addConfigEventListener(config, event -> holder.publish(config.getConfigData()));
+            return holder;
+        });
+    }
+
+    private enum Slot
+    {
+        INT, LONG, DOUBLE, BOOLEAN, OBJECT;
+
+        private static Slot of(Object defaultValue)
+        {
+            if(defaultValue instanceof Integer) return INT;
+            if(defaultValue instanceof Long) return LONG;
+            if(defaultValue instanceof Double) return DOUBLE;
+            if(defaultValue instanceof Boolean) return BOOLEAN;
+            return OBJECT;
+        }
+    }
+
+    /**
+     * Assigns every value of a spec to an index in the array of its type. Since the values of a spec
+     * never change, the layout is created once per config.
+     */
+    private static class Layout
+    {
+        private final Map<String, Pair<Slot, Integer>> indexes = new HashMap<>();
+        private final List<ForgeConfigSpec.ConfigValue<?>> values;
+        private final Object[] defaults;
+        private final Slot[] slots;
+        private final int[] slotIndexes;
+        private final int[] counts = new int[Slot.values().length];
+
+        private Layout(ForgeConfigSpec spec)
+        {
+            List<Pair<ForgeConfigSpec.ConfigValue<?>, ForgeConfigSpec.ValueSpec>> pairs = ConfigHelper.gatherAllForgeConfigValues(spec.getValues(), spec);
+            ImmutableList.Builder<ForgeConfigSpec.ConfigValue<?>> values = ImmutableList.builder();
+            this.defaults = new Object[pairs.size()];
+            this.slots = new Slot[pairs.size()];
+            this.slotIndexes = new int[pairs.size()];
+            for(int i = 0; i < pairs.size(); i++)
+            {
+                ForgeConfigSpec.ConfigValue<?> value = pairs.get(i).getLeft();
+                Object defaultValue = pairs.get(i).getRight().getDefault();
+                Slot slot = Slot.of(defaultValue);
+                this.defaults[i] = defaultValue;
+                this.slots[i] = slot;
+                this.slotIndexes[i] = this.counts[slot.ordinal()]++;
+                this.indexes.put(String.join(".", value.getPath()), Pair.of(slot, this.slotIndexes[i]));
+                values.add(value);
+            }
+            this.values = values.build();
+        }
+
+        private int getIndex(String path, Slot slot)
+        {
+            Pair<Slot, Integer> index = this.indexes.get(path);
+            if(index == null)
+            {
+                throw new IllegalArgumentException("Unknown config value: " + path);
+            }
+            if(index.getLeft() != slot)
+            {
+                throw new IllegalArgumentException("Config value " + path + " is not of type " + slot.name().toLowerCase());
+            }
+            return index.getRight();
+        }
+    }
+
+    private static class Holder
+    {
+        private final Layout layout;
+        private volatile Snapshot snapshot;
+
+        private Holder(Layout layout)
+        {
+            this.layout = layout;
+        }
+
+        private synchronized void publish(@Nullable CommentedConfig data)
+        {
+            // Snapshots are kept while a config is unloaded, such as server configs in the main menu
+            if(data == null && this.snapshot != null)
+                return;
+            Snapshot snapshot = new Snapshot(this.layout);
+            if(data != null)
+            {
+                // Configured writes changes while holding the lock of the data
+                synchronized(data)
+                {
+                    snapshot.read(this.layout, data);
+                }
+            }
+            else
+            {
+                snapshot.readDefaults(this.layout);
+            }
+            this.snapshot = snapshot;
+        }
+    }
+
+    private static class Snapshot
+    {
+        private final int[] ints;
+        private final long[] longs;
+        private final double[] doubles;
+        private final boolean[] booleans;
+        private final Object[] objects;
+
+        private Snapshot(Layout layout)
+        {
+            this.ints = new int[layout.counts[Slot.INT.ordinal()]];
+            this.longs = new long[layout.counts[Slot.LONG.ordinal()]];
+            this.doubles = new double[layout.counts[Slot.DOUBLE.ordinal()]];
+            this.booleans = new boolean[layout.counts[Slot.BOOLEAN.ordinal()]];
+            this.objects = new Object[layout.counts[Slot.OBJECT.ordinal()]];
+        }
+
+        private void read(Layout layout, CommentedConfig data)
+        {
+            for(int i = 0; i < layout.values.size(); i++)
+            {
+                Object raw = data.get(layout.values.get(i).getPath());
+                this.set(layout, i, raw != null ? raw : layout.defaults[i]);
+            }
+        }
+
+        private void readDefaults(Layout layout)
+        {
+            for(int i = 0; i < layout.values.size(); i++)
+            {
+                this.set(layout, i, layout.defaults[i]);
+            }
+        }
+
+        private void set(Layout layout, int i, Object raw)
+        {
+            int index = layout.slotIndexes[i];
+            switch(layout.slots[i])
+            {
+                case INT:
+                    this.ints[index] = ((Number) raw).intValue();
+                    break;
+                case LONG:
+                    this.longs[index] = ((Number) raw).longValue();
+                    break;
+                case DOUBLE:
+                    this.doubles[index] = ((Number) raw).doubleValue();
+                    break;
+                case BOOLEAN:
+                    this.booleans[index] = (Boolean) raw;
+                    break;
+                default:
+                    Object defaultValue = layout.defaults[i];
+                    if(defaultValue instanceof Enum && raw instanceof String)
+                    {
+                        // Enums are stored by name in the file
+                        raw = getEnumConstant((Enum<?>) defaultValue, (String) raw);
+                    }
+                    else if(raw instanceof List)
+                    {
+                        raw = ImmutableList.copyOf((List<?>) raw);
+                    }
+                    this.objects[index] = raw;
+                    break;
+            }
+        }
+    }
+
+    private static Enum<?> getEnumConstant(Enum<?> defaultValue, String name)
+    {
+        Enum<?> constant = ConfigHelper.findEnumConstant(defaultValue.getDeclaringClass(), name);
+        return constant != null ? constant : defaultValue;
+    }
+
+    /**
+     * Finds the holder and index of a handle the first time it is read, since handles are usually
+     * created before the config is registered.
+     */
+    private abstract static class Handle
+    {
+        private final String fileName;
+        private final String path;
+        private final Slot slot;
+        private Binding binding;
+
+        private Handle(String fileName, String path, Slot slot)
+        {
+            this.fileName = fileName;
+            this.path = path;
+            this.slot = slot;
+        }
+
+        protected Binding getBinding()
+        {
+            Binding binding = this.binding;
+            if(binding == null)
+            {
+                // Binding only has final fields, so it can be shared between threads without locking
+                Holder holder = getHolder(this.fileName);
+                binding = new Binding(holder, holder.layout.getIndex(this.path, this.slot));
+                this.binding = binding;
+            }
+            return binding;
+        }
+    }
+
+    private static class Binding
+    {
+        private final Holder holder;
+        private final int index;
+
+        private Binding(Holder holder, int index)
+        {
+            this.holder = holder;
+            this.index = index;
+        }
+    }
+
+    public static class IntHandle extends Handle
+    {
+        private IntHandle(String fileName, String path)
+        {
+            super(fileName, path, Slot.INT);
+        }
+
+        public int get()
+        {
+            Binding binding = this.getBinding();
+            return binding.holder.snapshot.ints[binding.index];
+        }
+    }
+
+    public static class LongHandle extends Handle
+    {
+        private LongHandle(String fileName, String path)
+        {
+            super(fileName, path, Slot.LONG);
+        }
+
+        public long get()
+        {
+            Binding binding = this.getBinding();
+            return binding.holder.snapshot.longs[binding.index];
+        }
+    }
+
+    public static class DoubleHandle extends Handle
+    {
+        private DoubleHandle(String fileName, String path)
+        {
+            super(fileName, path, Slot.DOUBLE);
+        }
+
+        public double get()
+        {
+            Binding binding = this.getBinding();
+            return binding.holder.snapshot.doubles[binding.index];
+        }
+    }
+
+    public static class BooleanHandle extends Handle
+    {
+        private BooleanHandle(String fileName, String path)
+        {
+            super(fileName, path, Slot.BOOLEAN);
+        }
+
+        public boolean get()
+        {
+            Binding binding = this.getBinding();
+            return binding.holder.snapshot.booleans[binding.index];
+        }
+    }
+
+    public static class ObjectHandle<T> extends Handle
+    {
+        private ObjectHandle(String fileName, String path)
+        {
+            super(fileName, path, Slot.OBJECT);
+        }
+
+        @SuppressWarnings("unchecked")
+        public T get()
+        {
+            Binding binding = this.getBinding();
+            return (T) binding.holder.snapshot.objects[binding.index];
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.mrcrayfish.configured.api;
 
+import com.google.common.collect.ImmutableList;
 import com.mrcrayfish.configured.client.ClientHandler;
 import com.mrcrayfish.configured.client.screen.ConfigScreen;
 import com.mrcrayfish.configured.client.screen.ModConfigSelectionScreen;
+import com.mrcrayfish.configured.util.ConfigChangeDispatcher;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.util.ResourceLocation;
@@ -12,6 +14,7 @@ import net.minecraftforge.api.distmarker.OnlyIn;
 import net.minecraftforge.fml.ModContainer;
 import net.minecraftforge.fml.config.ModConfig;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -97,4 +100,28 @@ public class ConfiguredHelper
     {
         return new ConfigScreen(parent, title, config, background);
     }
+
+    /**
+     * Subscribes a listener to changes of specific values of a config. The listener only receives the
+     * values at or below the given path that changed when the config was saved through Configured.
+     * The Reloading event of Forge is still fired as well.
+     *
+     * @param fileName the file name of the config, for example "configured-client.toml"
+     * @param path     the path of a value or folder in the config, or an empty list for all values
+     * @param listener the listener that receives the changes
+     */
+    public static void subscribeToChanges(String fileName, List<String> path, IConfigChangeListener listener)
+    {
+        ConfigChangeDispatcher.subscribe(fileName, ImmutableList.copyOf(path), listener);
+    }
+
+    /**
+     * Removes a listener that was added with {@link #subscribeToChanges(String, List, IConfigChangeListener)}
+     *
+     * @param listener the listener to remove
+     */
+    public static void unsubscribeFromChanges(IConfigChangeListener listener)
+    {
+        ConfigChangeDispatcher.unsubscribe(listener);
+    }
 }
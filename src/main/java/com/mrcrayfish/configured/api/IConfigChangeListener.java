@@ -0,0 +1,19 @@
+package com.mrcrayfish.configured.api;
+
+import java.util.List;
+
+/**
+ * A listener for changes of specific config values. Unlike the Reloading event of Forge, which is
+ * fired for the whole config, the listener only receives the values it subscribed to that actually
+ * changed. See {@link ConfiguredHelper#subscribeToChanges}.
+ */
+public interface IConfigChangeListener
+{
+    /**
+     * Called at the end of the tick in which the values were saved. All saves during the tick are
+     * combined into a single call.
+     *
+     * @param changes the changed values, never empty
+     */
+    void onConfigChanged(List<ConfigChange> changes);
+}
@@ -44,4 +44,38 @@ public interface IConfigEntry
      * @return name of the current folder.
      */
     String getEntryName();
+
+    /**
+     * Checks if any value of this entry or its children is different from its default value.
+     * The default implementation searches the whole entry, implementations are encouraged to
+     * keep track of this instead.
+     *
+     * @return true if a value is not the default value
+     */
+    default boolean isModified()
+    {
+        if(this.isLeaf())
+        {
+            IConfigValue<?> value = this.getValue();
+            return value != null && !value.isDefault();
+        }
+        return this.getChildren().stream().anyMatch(IConfigEntry::isModified);
+    }
+
+    /**
+     * Checks if any value of this entry or its children has been changed since the entry was
+     * created, in other words if there are unsaved changes. The default implementation searches
+     * the whole entry, implementations are encouraged to keep track of this instead.
+     *
+     * @return true if a value has been changed
+     */
+    default boolean isChanged()
+    {
+        if(this.isLeaf())
+        {
+            IConfigValue<?> value = this.getValue();
+            return value != null && value.isChanged();
+        }
+        return this.getChildren().stream().anyMatch(IConfigEntry::isChanged);
+    }
 }
@@ -72,4 +72,12 @@ public interface IConfigValue<T>
      * If your config has a cache this is when it should be cleaned
      */
     void cleanCache();
+
+    /**
+     * Adds a listener that is notified every time this value is set. Implementations should
+     * support this if they want their config tree to answer state queries without searching.
+     *
+     * @param listener the listener to add
+     */
+    default void addListener(IValueListener listener) {}
 }
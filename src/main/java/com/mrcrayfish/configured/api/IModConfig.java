@@ -3,8 +3,12 @@ package com.mrcrayfish.configured.api;
 import com.mrcrayfish.configured.impl.ForgeConfig;
 import net.minecraftforge.fml.config.ModConfig;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 /**
@@ -32,6 +36,19 @@ public interface IModConfig
      */
     IConfigEntry getRoot();
 
+    /**
+     * Determines if any value of the config differs from its default value. Since this is used
+     * to update buttons every time a screen is opened, implementations should try to make this
+     * cheap. The result must reflect changes that are made outside of Configured, such as Forge
+     * reloading the file, so a tree that is kept between calls must be dropped when that happens.
+     *
+     * @return true if the config is different from its defaults
+     */
+    default boolean isModified()
+    {
+        return this.getRoot().isModified();
+    }
+
     /**
      * If the configuration file is a server (local world or multiplayer) this function should return true
      *
@@ -58,4 +75,52 @@ public interface IModConfig
      * @throws IOException since its IO work the function will be expected to maybe throw IOExceptions
      */
     void loadServerConfig(Path path, Consumer<IModConfig> result) throws IOException;
+
+    /**
+     * A non-blocking variant of {@link #loadServerConfig(Path, Consumer)}. Implementations should read
+     * and parse the config on a worker thread and only apply the loaded data using the main executor.
+     * If the returned future is cancelled before the data is applied, the loaded data should be discarded.
+     * By default this simply calls {@link #loadServerConfig(Path, Consumer)} on the calling thread.
+     *
+     * @param path         to the expected config folder.
+     * @param mainExecutor the executor of the main thread, used to apply the loaded data
+     * @param onFinished   called once the folder is no longer accessed, even if the returned future
+     *                     was cancelled. Used to release resources such as the lock of a world.
+     * @return a future that completes with self if self got updated, otherwise with null
+     */
+    default CompletableFuture<IModConfig> loadServerConfigAsync(Path path, Executor mainExecutor, Runnable onFinished)
+    {
+        CompletableFuture<IModConfig> future = new CompletableFuture<>();
+        try
+        {
+            this.loadServerConfig(path, future::complete);
+            future.complete(null);
+        }
+        catch(IOException e)
+        {
+            future.completeExceptionally(e);
+        }
+        finally
+        {
+            onFinished.run();
+        }
+        return future;
+    }
+
+    /**
+     * Starts watching the file of this config for changes made outside of the game, for example by
+     * a server admin or a script. When the file changes, the values of the given tree should be
+     * updated to the new values in the file, while keeping values that have unsaved edits. By
+     * default watching is not supported.
+     *
+     * @param entry        an entry of a tree created by {@link #getRoot()}
+     * @param mainExecutor the executor of the main thread, used to update the tree
+     * @param listener     called on the main thread with the values that were updated
+     * @return a runnable that stops watching, or null if watching is not supported
+     */
+    @Nullable
+    default Runnable watchChanges(IConfigEntry entry, Executor mainExecutor, Consumer<Set<IConfigValue<?>>> listener)
+    {
+        return null;
+    }
 }
@@ -0,0 +1,43 @@
+package com.mrcrayfish.configured.api;
+
+/**
+ * Config values that store their value as a primitive. Screens can use these methods to get, test
+ * and set values without boxing them. The methods of {@link IConfigValue} are still supported and
+ * behave the same.
+ */
+public interface IPrimitiveConfigValue
+{
+    interface OfInt extends IConfigValue<Integer>
+    {
+        int getInt();
+
+        void setInt(int value);
+
+        boolean isValidInt(int value);
+    }
+
+    interface OfLong extends IConfigValue<Long>
+    {
+        long getLong();
+
+        void setLong(long value);
+
+        boolean isValidLong(long value);
+    }
+
+    interface OfDouble extends IConfigValue<Double>
+    {
+        double getDouble();
+
+        void setDouble(double value);
+
+        boolean isValidDouble(double value);
+    }
+
+    interface OfBoolean extends IConfigValue<Boolean>
+    {
+        boolean getBoolean();
+
+        void setBoolean(boolean value);
+    }
+}
@@ -0,0 +1,17 @@
+package com.mrcrayfish.configured.api;
+
+/**
+ * A listener that is notified when a {@link IConfigValue} is set. Used by config trees to keep
+ * track of the state of their values without searching through them.
+ */
+public interface IValueListener
+{
+    /**
+     * Called after the value has been set. The new state can be obtained from the value.
+     *
+     * @param value      the value that was set
+     * @param wasDefault if the value was the default value before it was set
+     * @param wasChanged if the value was different from its initial value before it was set
+     */
+    void onValueChanged(IConfigValue<?> value, boolean wasDefault, boolean wasChanged);
+}
@@ -1,37 +1,45 @@
 package com.mrcrayfish.configured.client;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
-import com.mrcrayfish.configured.util.ConfigHelper;
+import net.minecraft.util.Util;
 import net.minecraft.util.text.StringTextComponent;
-import net.minecraftforge.common.ForgeConfigSpec;
 import org.lwjgl.glfw.GLFW;
 
 import com.mrcrayfish.configured.Config;
 import com.mrcrayfish.configured.Configured;
 import com.mrcrayfish.configured.Reference;
 import com.mrcrayfish.configured.api.IModConfig;
+import com.mrcrayfish.configured.client.screen.GlobalSearchScreen;
 import com.mrcrayfish.configured.client.screen.IBackgroundTexture;
 import com.mrcrayfish.configured.client.screen.ModConfigSelectionScreen;
-import com.mrcrayfish.configured.client.util.OptiFineHelper;
-import com.mrcrayfish.configured.impl.ForgeConfig;
+import com.mrcrayfish.configured.client.util.GlobalSearchIndex;
+import com.mrcrayfish.configured.client.util.SpecMetadataCache;
+import com.mrcrayfish.configured.util.ConfigChangeDispatcher;
+import com.mrcrayfish.configured.util.ConfigValidator;
+import com.mrcrayfish.configured.util.PerformanceMetrics;
 
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.AbstractGui;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.gui.widget.list.AbstractList;
 import net.minecraft.client.settings.KeyBinding;
+import net.minecraft.resources.IReloadableResourceManager;
+import net.minecraft.resources.IResourceManager;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
 import net.minecraftforge.client.event.InputEvent;
+import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.ExtensionPoint;
 import net.minecraftforge.fml.ModContainer;
@@ -44,6 +52,8 @@ import net.minecraftforge.fml.config.ConfigTracker;
 import net.minecraftforge.fml.config.ModConfig;
 import net.minecraftforge.fml.loading.moddiscovery.ModInfo;
 import net.minecraftforge.forgespi.language.IModInfo;
+import net.minecraftforge.resource.ISelectiveResourceReloadListener;
+import net.minecraftforge.resource.VanillaResourceType;
 
 /**
  * Author: MrCrayfish
@@ -53,74 +63,160 @@ import net.minecraftforge.forgespi.language.IModInfo;
 public class ClientHandler
 {
     public static final KeyBinding KEY_OPEN_MOD_LIST = new KeyBinding("key.configured.open_mod_list", -1, "key.categories.configured");
+    public static final KeyBinding KEY_OPEN_GLOBAL_SEARCH = new KeyBinding("key.configured.open_global_search", -1, "key.categories.configured");
+
+    private static final GlobalSearchIndex SEARCH_INDEX = new GlobalSearchIndex();
+
+    private static EnumMap<ModConfig.Type, Set<ModConfig>> configSets;
+    private static volatile ConfigIndex configIndex;
 
     public static void registerKeyBindings()
     {
         ClientRegistry.registerKeyBinding(KEY_OPEN_MOD_LIST);
+        ClientRegistry.registerKeyBinding(KEY_OPEN_GLOBAL_SEARCH);
     }
 
     // This is where the magic happens
     public static void generateConfigFactories()
     {
         Configured.LOGGER.info("Creating config GUI factories...");
-        ModList.get().forEachModContainer((modId, container) ->
+        refreshConfigIndex();
+        List<ModContainer> containers = new ArrayList<>();
+        ModList.get().forEachModContainer((modId, container) -> containers.add(container));
+
+        // Finding the configs of a mod is independent of other mods, so it's spread across the worker pool
+        List<CompletableFuture<ModConfigDescriptor>> futures = containers.stream().map(container -> CompletableFuture.supplyAsync(() ->
+        {
+            long start = PerformanceMetrics.start();
+            ModConfigDescriptor descriptor = ModConfigDescriptor.create(container);
+            PerformanceMetrics.stop(PerformanceMetrics.Timer.FACTORY_GENERATION, start, container.getModId());
+            return descriptor;
+        }, Util.getServerExecutor())).collect(Collectors.toList());
+
+        // Extension points are not thread safe, so they are registered on this thread
+        List<ModConfigDescriptor> descriptors = new ArrayList<>();
+        futures.forEach(future ->
         {
-            // Ignore mods that already implement their own custom factory
+            ModConfigDescriptor descriptor = future.join();
+            if(descriptor.isEmpty()) // Only add if at least one config exists
+                return;
+
+            // Mods with their own custom factory are still searchable, but their factory is not replaced
+            descriptors.add(descriptor);
+            ModContainer container = descriptor.getContainer();
             if(container.getCustomExtension(ExtensionPoint.CONFIGGUIFACTORY).isPresent() && !Config.CLIENT.forceConfiguredMenu.get())
                 return;
 
-            Map<ModConfig.Type, Set<IModConfig>> modConfigMap = createConfigMap(container);
-            if(!modConfigMap.isEmpty()) // Only add if at least one config exists
-            {
-                Configured.LOGGER.info("Registering config factory for mod {}. Found {} client config(s) and {} common config(s)", modId, modConfigMap.getOrDefault(ModConfig.Type.CLIENT, Collections.emptySet()).size(), modConfigMap.getOrDefault(ModConfig.Type.COMMON, Collections.emptySet()).size());
-                String displayName = container.getModInfo().getDisplayName();
-                ResourceLocation backgroundTexture = getBackgroundTexture(container.getModInfo());
-                container.registerExtensionPoint(ExtensionPoint.CONFIGGUIFACTORY, () -> (mc, screen) -> new ModConfigSelectionScreen(screen, new StringTextComponent(displayName), backgroundTexture, modConfigMap));
-            }
+            Configured.LOGGER.info("Registering config factory for mod {}. Found {} client config(s) and {} common config(s)", container.getModId(), descriptor.getConfigCount(ModConfig.Type.CLIENT), descriptor.getConfigCount(ModConfig.Type.COMMON));
+            container.registerExtensionPoint(ExtensionPoint.CONFIGGUIFACTORY, () -> (mc, screen) -> new ModConfigSelectionScreen(screen, new StringTextComponent(descriptor.getDisplayName()), descriptor.getBackgroundTexture(), descriptor.getConfigMap()));
         });
+
+        SEARCH_INDEX.build(descriptors).thenRun(SpecMetadataCache::save);
+
+        // Labels of values with a translation key are indexed in the current language
+        IResourceManager resourceManager = Minecraft.getInstance().getResourceManager();
+        if(resourceManager instanceof IReloadableResourceManager)
+        {
+            ((IReloadableResourceManager) resourceManager).addReloadListener((ISelectiveResourceReloadListener) (manager, predicate) ->
+            {
+                if(predicate.test(VanillaResourceType.LANGUAGES))
+                {
+                    SEARCH_INDEX.rebuild();
+                }
+            });
+        }
+
+        if(Config.CLIENT.validateConfigsOnStartup.get())
+        {
+            List<IModConfig> configs = new ArrayList<>();
+            descriptors.forEach(descriptor -> descriptor.getConfigMap().values().forEach(configs::addAll));
+            ConfigValidator.validateAsync(configs).thenAccept(ConfigValidator.Report::log);
+        }
     }
 
     private static EnumMap<ModConfig.Type, Set<ModConfig>> getConfigSets()
     {
-        return ObfuscationReflectionHelper.getPrivateValue(ConfigTracker.class, ConfigTracker.INSTANCE, "configSets");
+        // The map is final in the config tracker, so it only needs to be found once
+        if(configSets == null)
+        {
+            configSets = ObfuscationReflectionHelper.getPrivateValue(ConfigTracker.class, ConfigTracker.INSTANCE, "configSets");
+        }
+        return configSets;
     }
 
-    public static Map<ModConfig.Type, Set<IModConfig>> createConfigMap(ModContainer container)
+    /**
+     * Gets the mod configs of the given type that belong to the given mod. The configs are looked
+     * up from an index of the config tracker, so this is safe to call from worker threads.
+     *
+     * @param modId the id of the mod
+     * @param type  the type of config
+     * @return a list of the mod configs
+     */
+    static List<ModConfig> getModConfigs(String modId, ModConfig.Type type)
     {
-        Map<ModConfig.Type, Set<IModConfig>> modConfigMap = new HashMap<>();
-        addConfigSetToMap(container, ModConfig.Type.CLIENT, modConfigMap);
-        addConfigSetToMap(container, ModConfig.Type.COMMON, modConfigMap);
-        addConfigSetToMap(container, ModConfig.Type.SERVER, modConfigMap);
-        return modConfigMap;
+        return getConfigIndex().configs.get(type).getOrDefault(modId, Collections.emptyList());
     }
-    
-    private static void addConfigSetToMap(ModContainer container, ModConfig.Type type, Map<ModConfig.Type, Set<IModConfig>> configMap)
+
+    /**
+     * Gets the index of the configs in the config tracker. If configs have been registered since
+     * the index was created, it will be rebuilt first.
+     */
+    private static ConfigIndex getConfigIndex()
     {
-        /* Optifine basically breaks Forge's client config, so it's simply not added */
-        if(type == ModConfig.Type.CLIENT && OptiFineHelper.isLoaded() && container.getModId().equals("forge"))
+        ConfigIndex index = configIndex;
+        if(index == null || index.configCount != countTrackedConfigs(getConfigSets()))
         {
-            Configured.LOGGER.info("Ignoring Forge's client config since OptiFine was detected");
-            return;
+            index = createConfigIndex();
+            configIndex = index;
         }
+        return index;
+    }
+
+    /**
+     * Rebuilds the index of the configs in the config tracker. The index is automatically rebuilt
+     * when it's out of date, however mods that register configs after loading has completed can
+     * call this to avoid the first lookup doing the work.
+     */
+    public static void refreshConfigIndex()
+    {
+        configIndex = createConfigIndex();
+    }
 
-        Set<ModConfig> configSet = getConfigSets().get(type);
-        synchronized(configSet)
+    private static ConfigIndex createConfigIndex()
+    {
+        EnumMap<ModConfig.Type, Set<ModConfig>> configSets = getConfigSets();
+        EnumMap<ModConfig.Type, Map<String, List<ModConfig>>> configs = new EnumMap<>(ModConfig.Type.class);
+        int count = 0;
+        for(ModConfig.Type type : ModConfig.Type.values())
         {
-            Set<IModConfig> filteredConfigSets = configSet.stream().filter(config -> config.getModId().equals(container.getModId())).map(config -> {
-                ForgeConfigSpec forgeConfigSpec = ConfigHelper.findForgeConfigSpec(config.getSpec());
-                if(forgeConfigSpec != null) {
-                    return new ForgeConfig(config, forgeConfigSpec);
-                }
-                return null;
-            }).collect(Collectors.toSet());
-            if(!filteredConfigSets.isEmpty())
+            Map<String, List<ModConfig>> modConfigs = new HashMap<>();
+            Set<ModConfig> configSet = configSets.get(type);
+            synchronized(configSet)
             {
-                configMap.put(type, filteredConfigSets);
+                configSet.forEach(config -> modConfigs.computeIfAbsent(config.getModId(), modId -> new ArrayList<>()).add(config));
+                count += configSet.size();
             }
+            configs.put(type, modConfigs);
+        }
+        return new ConfigIndex(configs, count);
+    }
+
+    private static int countTrackedConfigs(EnumMap<ModConfig.Type, Set<ModConfig>> configSets)
+    {
+        int count = 0;
+        for(Set<ModConfig> configSet : configSets.values())
+        {
+            count += configSet.size();
         }
+        return count;
+    }
+
+    public static Map<ModConfig.Type, Set<IModConfig>> createConfigMap(ModContainer container)
+    {
+        return ModConfigDescriptor.create(container).getConfigMap();
     }
 
-    private static ResourceLocation getBackgroundTexture(IModInfo info)
+    static ResourceLocation getBackgroundTexture(IModInfo info)
     {
         String configBackground = (String) info.getModProperties().get("configuredBackground");
 
@@ -166,6 +262,20 @@ public class ClientHandler
         }
     }
 
+    public static GlobalSearchIndex getSearchIndex()
+    {
+        return SEARCH_INDEX;
+    }
+
+    @SubscribeEvent
+    public static void onClientTick(TickEvent.ClientTickEvent event)
+    {
+        if(event.phase == TickEvent.Phase.END)
+        {
+            ConfigChangeDispatcher.dispatch();
+        }
+    }
+
     @SubscribeEvent
     public static void onKeyPress(InputEvent.KeyInputEvent event)
     {
@@ -177,5 +287,27 @@ public class ClientHandler
             Screen oldScreen = minecraft.currentScreen;
             minecraft.displayGuiScreen(new ModListScreen(oldScreen));
         }
+        else if(event.getAction() == GLFW.GLFW_PRESS && KEY_OPEN_GLOBAL_SEARCH.isPressed())
+        {
+            // Also works without a player, server configs are only included from the main menu
+            Minecraft minecraft = Minecraft.getInstance();
+            Screen oldScreen = minecraft.currentScreen;
+            minecraft.displayGuiScreen(new GlobalSearchScreen(oldScreen, SEARCH_INDEX));
+        }
+    }
+
+    /**
+     * A snapshot of the configs in the config tracker, indexed by type and mod id
+     */
+    private static class ConfigIndex
+    {
+        private final EnumMap<ModConfig.Type, Map<String, List<ModConfig>>> configs;
+        private final int configCount;
+
+        private ConfigIndex(EnumMap<ModConfig.Type, Map<String, List<ModConfig>>> configs, int configCount)
+        {
+            this.configs = configs;
+            this.configCount = configCount;
+        }
     }
 }
@@ -0,0 +1,159 @@
+package com.mrcrayfish.configured.client;
+
+import com.mrcrayfish.configured.Configured;
+import com.mrcrayfish.configured.api.IModConfig;
+import com.mrcrayfish.configured.client.util.OptiFineHelper;
+import com.mrcrayfish.configured.impl.ForgeConfig;
+import com.mrcrayfish.configured.util.ConfigHelper;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+import net.minecraftforge.common.ForgeConfigSpec;
+import net.minecraftforge.fml.ModContainer;
+import net.minecraftforge.fml.config.ModConfig;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A cheap description of the configs of a mod. It's created when config factories are generated
+ * and only holds the mod configs and their specs. The {@link IModConfig} wrappers are created the
+ * first time a config screen for the mod is opened.
+ */
+@OnlyIn(Dist.CLIENT)
+public class ModConfigDescriptor
+{
+    private final ModContainer container;
+    private final String displayName;
+    private final ResourceLocation backgroundTexture;
+    private final Map<ModConfig.Type, List<Pair<ModConfig, ForgeConfigSpec>>> configs;
+    private Map<ModConfig.Type, Set<IModConfig>> configMap;
+
+    private ModConfigDescriptor(ModContainer container, Map<ModConfig.Type, List<Pair<ModConfig, ForgeConfigSpec>>> configs)
+    {
+        this.container = container;
+        this.displayName = container.getModInfo().getDisplayName();
+        this.backgroundTexture = ClientHandler.getBackgroundTexture(container.getModInfo());
+        this.configs = configs;
+    }
+
+    /**
+     * Finds the configs of the given mod and creates a descriptor for them. This doesn't touch any
+     * state besides the config tracker, so it's safe to call from worker threads.
+     *
+     * @param container the mod container to create the descriptor for
+     * @return a new descriptor
+     */
+    public static ModConfigDescriptor create(ModContainer container)
+    {
+        Map<ModConfig.Type, List<Pair<ModConfig, ForgeConfigSpec>>> configs = new EnumMap<>(ModConfig.Type.class);
+        for(ModConfig.Type type : ModConfig.Type.values())
+        {
+            /* Optifine basically breaks Forge's client config, so it's simply not added */
+            if(type == ModConfig.Type.CLIENT && OptiFineHelper.isLoaded() && container.getModId().equals("forge"))
+            {
+                Configured.LOGGER.info("Ignoring Forge's client config since OptiFine was detected");
+                continue;
+            }
+
+            List<Pair<ModConfig, ForgeConfigSpec>> specs = new ArrayList<>();
+            for(ModConfig config : ClientHandler.getModConfigs(container.getModId(), type))
+            {
+                ForgeConfigSpec forgeConfigSpec = ConfigHelper.findForgeConfigSpec(config.getSpec());
+                if(forgeConfigSpec != null)
+                {
+                    specs.add(Pair.of(config, forgeConfigSpec));
+                }
+            }
+            if(!specs.isEmpty())
+            {
+                configs.put(type, specs);
+            }
+        }
+        return new ModConfigDescriptor(container, configs);
+    }
+
+    public ModContainer getContainer()
+    {
+        return this.container;
+    }
+
+    public String getDisplayName()
+    {
+        return this.displayName;
+    }
+
+    public ResourceLocation getBackgroundTexture()
+    {
+        return this.backgroundTexture;
+    }
+
+    public boolean isEmpty()
+    {
+        return this.configs.isEmpty();
+    }
+
+    public int getConfigCount(ModConfig.Type type)
+    {
+        return this.configs.getOrDefault(type, Collections.emptyList()).size();
+    }
+
+    /**
+     * @return the mod configs of the mod and their specs, without creating any wrappers
+     */
+    public List<Pair<ModConfig, ForgeConfigSpec>> getSpecs()
+    {
+        List<Pair<ModConfig, ForgeConfigSpec>> specs = new ArrayList<>();
+        this.configs.values().forEach(specs::addAll);
+        return specs;
+    }
+
+    /**
+     * Gets the wrapper of the given mod config of the mod. The wrappers are created the first time
+     * any config of the mod is requested.
+     *
+     * @param config a mod config of the mod
+     * @return the wrapper of the config
+     * @throws IllegalArgumentException if the config does not belong to the mod
+     */
+    public IModConfig getConfig(ModConfig config)
+    {
+        for(IModConfig wrapper : this.getConfigMap().getOrDefault(config.getType(), Collections.emptySet()))
+        {
+            if(wrapper instanceof ForgeConfig && ((ForgeConfig) wrapper).getModConfig() == config)
+            {
+                return wrapper;
+            }
+        }
+        throw new IllegalArgumentException("Config " + config.getFileName() + " does not belong to " + this.container.getModId());
+    }
+
+    /**
+     * Gets the configs of the mod, wrapped as {@link IModConfig}. The wrappers are created the
+     * first time this is called.
+     *
+     * @return a map of config types to the configs of the mod
+     */
+    public synchronized Map<ModConfig.Type, Set<IModConfig>> getConfigMap()
+    {
+        if(this.configMap == null)
+        {
+            Map<ModConfig.Type, Set<IModConfig>> configMap = new HashMap<>();
+            this.configs.forEach((type, specs) ->
+            {
+                Set<IModConfig> configs = new LinkedHashSet<>();
+                specs.forEach(pair -> configs.add(new ForgeConfig(pair.getLeft(), pair.getRight())));
+                configMap.put(type, configs);
+            });
+            this.configMap = configMap;
+        }
+        return this.configMap;
+    }
+}
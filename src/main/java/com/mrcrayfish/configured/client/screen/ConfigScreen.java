@@ -7,8 +7,13 @@ import com.mrcrayfish.configured.Configured;
 import com.mrcrayfish.configured.api.IConfigEntry;
 import com.mrcrayfish.configured.api.IConfigValue;
 import com.mrcrayfish.configured.api.IModConfig;
+import com.mrcrayfish.configured.api.IPrimitiveConfigValue;
 import com.mrcrayfish.configured.client.screen.widget.IconButton;
+import com.mrcrayfish.configured.client.util.EditHistory;
+import com.mrcrayfish.configured.client.util.NumberParser;
 import com.mrcrayfish.configured.client.util.ScreenUtil;
+import com.mrcrayfish.configured.client.util.SpecMetadataCache;
+import com.mrcrayfish.configured.client.util.TextLayoutCache;
 import joptsimple.internal.Strings;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.DialogTexts;
@@ -30,11 +35,12 @@ import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
 import net.minecraftforge.fml.config.ModConfig.Type;
 import org.apache.commons.lang3.StringUtils;
+import org.lwjgl.glfw.GLFW;
 
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.function.Function;
+import java.util.Set;
 
 /**
  * Author: MrCrayfish
@@ -63,6 +69,9 @@ public class ConfigScreen extends ListMenuScreen
     protected IModConfig config;
     protected Button saveButton;
     protected Button restoreButton;
+    private IModConfig watchedConfig;
+    private EditHistory history = new EditHistory();
+    private Runnable stopWatching;
 
     public ConfigScreen(Screen parent, ITextComponent title, ResourceLocation background, IConfigEntry folderEntry)
     {
@@ -70,10 +79,26 @@ public class ConfigScreen extends ListMenuScreen
         this.folderEntry = folderEntry;
     }
 
+    /**
+     * Creates the screen of a sub folder of the given screen. The screen shares the edit history of
+     * its parent, so an undo can revert edits made in other folders, and watches the same config.
+     *
+     * @param parent      the screen of the folder that contains the sub folder
+     * @param title       the title of the screen
+     * @param folderEntry the entry of the sub folder
+     */
+    public ConfigScreen(ConfigScreen parent, ITextComponent title, IConfigEntry folderEntry)
+    {
+        this(parent, title, parent.background, folderEntry);
+        this.watchedConfig = parent.watchedConfig;
+        this.history = parent.history;
+    }
+
     public ConfigScreen(Screen parent, ITextComponent title, IModConfig config, ResourceLocation background)
     {
         super(parent, title, background, 24);
         this.config = config;
+        this.watchedConfig = config;
         this.folderEntry = config.getRoot();
     }
 
@@ -175,6 +200,46 @@ public class ConfigScreen extends ListMenuScreen
         {
             this.addButton(new Button(this.width / 2 - 75, this.height - 29, 150, 20, DialogTexts.GUI_BACK, button -> this.minecraft.displayGuiScreen(this.parent)));
         }
+
+        // Values are kept up to date with the file while this screen is shown
+        if(this.watchedConfig != null && this.stopWatching == null)
+        {
+            this.stopWatching = this.watchedConfig.watchChanges(this.folderEntry, this.minecraft, this::refreshItems);
+        }
+    }
+
+    /**
+     * Called by {@link Minecraft#displayGuiScreen(Screen)} whenever this screen is replaced, which
+     * includes saving, cancelling, going back and opening a sub folder, as well as escape. Watching
+     * is started again by {@link #init()} if this screen is shown again.
+     */
+    @Override
+    public void onClose()
+    {
+        super.onClose();
+        if(this.stopWatching != null)
+        {
+            this.stopWatching.run();
+            this.stopWatching = null;
+        }
+    }
+
+    /**
+     * Updates the items of the given values after they were changed by something other than the
+     * items themselves, such as the config file being edited or an undo.
+     */
+    private void refreshItems(Set<IConfigValue<?>> values)
+    {
+        if(values.isEmpty() || this.minecraft.currentScreen != this)
+            return;
+        for(Item item : this.entries)
+        {
+            if(item instanceof ConfigItem && values.contains(((ConfigItem<?>) item).holder))
+            {
+                ((ConfigItem<?>) item).onResetValue();
+            }
+        }
+        this.updateButtons();
     }
 
     private void saveConfig()
@@ -190,7 +255,9 @@ public class ConfigScreen extends ListMenuScreen
         ConfirmationScreen confirmScreen = new ConfirmationScreen(ConfigScreen.this, new TranslationTextComponent("configured.gui.restore_message"), result ->
         {
             if(!result) return true;
-            this.restoreDefaults(this.folderEntry);
+            List<EditHistory.Change<?>> changes = new ArrayList<>();
+            this.restoreDefaults(this.folderEntry, changes);
+            this.history.record(changes);
             this.updateButtons();
             return true;
         });
@@ -200,20 +267,60 @@ public class ConfigScreen extends ListMenuScreen
         Minecraft.getInstance().displayGuiScreen(confirmScreen);
     }
 
-    private void restoreDefaults(IConfigEntry entry)
+    private void restoreDefaults(IConfigEntry entry, List<EditHistory.Change<?>> changes)
     {
         for(IConfigEntry child : entry.getChildren())
         {
             if(child.isLeaf())
             {
                 IConfigValue<?> value = child.getValue();
-                if(value != null) value.restore();
+                if(value != null && !value.isDefault()) changes.add(restore(value));
                 continue;
             }
-            this.restoreDefaults(child);
+            // Folders know if they contain modified values, so unmodified folders are skipped
+            if(child.isModified())
+            {
+                this.restoreDefaults(child, changes);
+            }
         }
     }
 
+    private static <T> EditHistory.Change<T> restore(IConfigValue<T> holder)
+    {
+        T oldValue = holder.get();
+        holder.restore();
+        return new EditHistory.Change<>(holder, oldValue, holder.get());
+    }
+
+    /**
+     * Sets the value of a holder and records the change in the edit history
+     */
+    private <T> void setValue(IConfigValue<T> holder, T value)
+    {
+        T oldValue = holder.get();
+        holder.set(value);
+        this.history.record(holder, oldValue, holder.get());
+    }
+
+    @Override
+    public boolean keyPressed(int keyCode, int scanCode, int modifiers)
+    {
+        if(hasControlDown() && !hasAltDown())
+        {
+            if(keyCode == GLFW.GLFW_KEY_Z && !hasShiftDown())
+            {
+                this.refreshItems(this.history.undo());
+                return true;
+            }
+            if(keyCode == GLFW.GLFW_KEY_Y || (keyCode == GLFW.GLFW_KEY_Z && hasShiftDown()))
+            {
+                this.refreshItems(this.history.redo());
+                return true;
+            }
+        }
+        return super.keyPressed(keyCode, scanCode, modifiers);
+    }
+
     private void updateButtons()
     {
         if(this.folderEntry.isRoot())
@@ -242,21 +349,35 @@ public class ConfigScreen extends ListMenuScreen
 
     public class FolderItem extends Item
     {
-        private final Button button;
+        private final IConfigEntry folderEntry;
+        private Button button;
 
         public FolderItem(IConfigEntry folderEntry)
         {
             super(new StringTextComponent(createLabel(folderEntry.getEntryName())));
+            this.folderEntry = folderEntry;
+        }
+
+        @Override
+        protected void createWidgets()
+        {
             this.button = new Button(10, 5, 44, 20, new StringTextComponent(this.getLabel()).mergeStyle(TextFormatting.BOLD).mergeStyle(TextFormatting.WHITE), onPress -> {
                 ITextComponent newTitle = ConfigScreen.this.title.copyRaw().appendString(" > " + this.getLabel());
-                ConfigScreen.this.minecraft.displayGuiScreen(new ConfigScreen(ConfigScreen.this, newTitle, ConfigScreen.this.background, folderEntry));
+                ConfigScreen screen = new ConfigScreen(ConfigScreen.this, newTitle, this.folderEntry);
+                ConfigScreen.this.minecraft.displayGuiScreen(screen);
             });
         }
 
+        @Override
+        protected void clearWidgets()
+        {
+            this.button = null;
+        }
+
         @Override
         public List<? extends IGuiEventListener> getEventListeners()
         {
-            return ImmutableList.of(this.button);
+            return this.button != null ? ImmutableList.of(this.button) : ImmutableList.of();
         }
 
         @Override
@@ -273,25 +394,41 @@ public class ConfigScreen extends ListMenuScreen
     {
         protected final IConfigValue<T> holder;
         protected final List<IGuiEventListener> eventListeners = Lists.newArrayList();
-        protected final Button resetButton;
+        protected Button resetButton;
+        private ITextComponent trimmedLabel;
+        private int trimmedWidth;
 
         public ConfigItem(IConfigValue<T> holder)
         {
             super(createLabelFromHolder(holder));
             this.holder = holder;
+        }
+
+        @Override
+        protected void createWidgets()
+        {
             if(this.holder.getComment() != null)
             {
-                this.tooltip = this.createToolTip(holder);
+                this.tooltip = this.createToolTip(this.holder);
             }
             int maxTooltipWidth = Math.max(ConfigScreen.this.width / 2 - 43, 170);
             Button.ITooltip tooltip = ScreenUtil.createButtonTooltip(ConfigScreen.this, new TranslationTextComponent("configured.gui.reset"), maxTooltipWidth);
             this.resetButton = new IconButton(0, 0, 0, 0, onPress -> {
-                this.holder.restore();
+                ConfigScreen.this.history.record(ImmutableList.<EditHistory.Change<?>>of(restore(this.holder)));
                 this.onResetValue();
+                ConfigScreen.this.updateButtons();
             }, tooltip);
             this.eventListeners.add(this.resetButton);
         }
 
+        @Override
+        protected void clearWidgets()
+        {
+            this.eventListeners.clear();
+            this.resetButton = null;
+            this.tooltip = null;
+        }
+
         protected void onResetValue() {}
 
         @Override
@@ -318,14 +455,21 @@ public class ConfigScreen extends ListMenuScreen
 
         private ITextComponent getTrimmedLabel(int maxWidth)
         {
-            if(ConfigScreen.this.minecraft.fontRenderer.getStringPropertyWidth(this.label) > maxWidth)
+            // The row width rarely changes, so the trimmed label is kept until it does
+            if(this.trimmedLabel == null || this.trimmedWidth != maxWidth)
             {
-                return new StringTextComponent(ConfigScreen.this.minecraft.fontRenderer.func_238417_a_(this.label, maxWidth).getString() + "...");
+                this.trimmedLabel = TextLayoutCache.trim(this.label, maxWidth);
+                this.trimmedWidth = maxWidth;
             }
-            return this.label;
+            return this.trimmedLabel;
         }
 
         private List<IReorderingProcessor> createToolTip(IConfigValue<T> holder)
+        {
+            return TextLayoutCache.wrap(holder.getPath() + "\n" + holder.getComment(), 200, Style.EMPTY, () -> this.wrapToolTip(holder));
+        }
+
+        private List<IReorderingProcessor> wrapToolTip(IConfigValue<T> holder)
         {
             FontRenderer font = Minecraft.getInstance().fontRenderer;
             List<ITextProperties> lines = font.getCharacterManager().func_238362_b_(new StringTextComponent(holder.getComment()), 200, Style.EMPTY);
@@ -354,36 +498,56 @@ public class ConfigScreen extends ListMenuScreen
 
     public abstract class NumberItem<T extends Number> extends ConfigItem<T>
     {
-        private final FocusedTextFieldWidget textField;
+        private FocusedTextFieldWidget textField;
 
-        @SuppressWarnings("unchecked")
-        public NumberItem(IConfigValue<T> holder, Function<String, Number> parser)
+        public NumberItem(IConfigValue<T> holder)
         {
             super(holder);
-            this.textField = new FocusedTextFieldWidget(ConfigScreen.this.font, 0, 0, 44, 18, this.label);
-            this.textField.setText(holder.get().toString());
-            this.textField.setResponder((s) ->
+        }
+
+        /**
+         * Parses the text of the text field and sets it as the value of the holder if it is valid.
+         * This is called on every key press, so implementations should avoid throwing exceptions
+         * for invalid text.
+         *
+         * @param text the text of the text field
+         * @return true if the text was a valid value
+         */
+        protected abstract boolean trySet(String text);
+
+        @Override
+        protected void createWidgets()
+        {
+            super.createWidgets();
+            FocusedTextFieldWidget textField = new FocusedTextFieldWidget(ConfigScreen.this.font, 0, 0, 44, 18, this.label);
+            textField.setText(this.holder.get().toString());
+            textField.setResponder((s) ->
             {
-                try
+                T oldValue = this.holder.get();
+                if(this.trySet(s))
                 {
-                    Number n = parser.apply(s);
-                    if(holder.isValid((T) n))
-                    {
-                        this.textField.setTextColor(14737632);
-                        holder.set((T) n);
-                        ConfigScreen.this.updateButtons();
-                    }
-                    else
-                    {
-                        this.textField.setTextColor(16711680);
-                    }
+                    textField.setTextColor(14737632);
+                    ConfigScreen.this.history.recordTyping(this.holder, oldValue, this.holder.get());
+                    ConfigScreen.this.updateButtons();
                 }
-                catch(Exception ignored)
+                else
                 {
-                    this.textField.setTextColor(16711680);
+                    textField.setTextColor(16711680);
                 }
             });
-            this.eventListeners.add(this.textField);
+            this.textField = textField;
+            this.eventListeners.add(textField);
+        }
+
+        @Override
+        protected void clearWidgets()
+        {
+            super.clearWidgets();
+            if(ConfigScreen.this.activeTextField == this.textField)
+            {
+                ConfigScreen.this.activeTextField = null;
+            }
+            this.textField = null;
         }
 
         @Override
@@ -398,7 +562,10 @@ public class ConfigScreen extends ListMenuScreen
         @Override
         public void onResetValue()
         {
-            this.textField.setText(this.holder.get().toString());
+            if(this.textField != null)
+            {
+                this.textField.setText(this.holder.get().toString());
+            }
         }
     }
 
@@ -406,7 +573,30 @@ public class ConfigScreen extends ListMenuScreen
     {
         public IntegerItem(IConfigValue<Integer> holder)
         {
-            super(holder, Integer::parseInt);
+            super(holder);
+        }
+
+        @Override
+        protected boolean trySet(String text)
+        {
+            if(!NumberParser.isLong(text))
+                return false;
+            long value = Long.parseLong(text);
+            if(value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+                return false;
+            if(this.holder instanceof IPrimitiveConfigValue.OfInt)
+            {
+                IPrimitiveConfigValue.OfInt holder = (IPrimitiveConfigValue.OfInt) this.holder;
+                if(!holder.isValidInt((int) value))
+                    return false;
+                holder.setInt((int) value);
+                return true;
+            }
+            Integer boxed = (int) value;
+            if(!this.holder.isValid(boxed))
+                return false;
+            this.holder.set(boxed);
+            return true;
         }
     }
 
@@ -414,7 +604,28 @@ public class ConfigScreen extends ListMenuScreen
     {
         public DoubleItem(IConfigValue<Double> holder)
         {
-            super(holder, Double::parseDouble);
+            super(holder);
+        }
+
+        @Override
+        protected boolean trySet(String text)
+        {
+            if(!NumberParser.isDouble(text))
+                return false;
+            double value = Double.parseDouble(text);
+            if(this.holder instanceof IPrimitiveConfigValue.OfDouble)
+            {
+                IPrimitiveConfigValue.OfDouble holder = (IPrimitiveConfigValue.OfDouble) this.holder;
+                if(!holder.isValidDouble(value))
+                    return false;
+                holder.setDouble(value);
+                return true;
+            }
+            Double boxed = value;
+            if(!this.holder.isValid(boxed))
+                return false;
+            this.holder.set(boxed);
+            return true;
         }
     }
 
@@ -422,25 +633,71 @@ public class ConfigScreen extends ListMenuScreen
     {
         public LongItem(IConfigValue<Long> holder)
         {
-            super(holder, Long::parseLong);
+            super(holder);
+        }
+
+        @Override
+        protected boolean trySet(String text)
+        {
+            if(!NumberParser.isLong(text))
+                return false;
+            long value = Long.parseLong(text);
+            if(this.holder instanceof IPrimitiveConfigValue.OfLong)
+            {
+                IPrimitiveConfigValue.OfLong holder = (IPrimitiveConfigValue.OfLong) this.holder;
+                if(!holder.isValidLong(value))
+                    return false;
+                holder.setLong(value);
+                return true;
+            }
+            Long boxed = value;
+            if(!this.holder.isValid(boxed))
+                return false;
+            this.holder.set(boxed);
+            return true;
         }
     }
 
     public class BooleanItem extends ConfigItem<Boolean>
     {
-        private final Button button;
+        private Button button;
 
         public BooleanItem(IConfigValue<Boolean> holder)
         {
             super(holder);
-            this.button = new Button(10, 5, 46, 20, DialogTexts.optionsEnabled(holder.get()), button -> {
-                holder.set(!holder.get());
-                button.setMessage(DialogTexts.optionsEnabled(holder.get()));
+        }
+
+        @Override
+        protected void createWidgets()
+        {
+            super.createWidgets();
+            this.button = new Button(10, 5, 46, 20, DialogTexts.optionsEnabled(this.holder.get()), button -> {
+                boolean oldValue;
+                if(this.holder instanceof IPrimitiveConfigValue.OfBoolean)
+                {
+                    IPrimitiveConfigValue.OfBoolean holder = (IPrimitiveConfigValue.OfBoolean) this.holder;
+                    oldValue = holder.getBoolean();
+                    holder.setBoolean(!oldValue);
+                }
+                else
+                {
+                    oldValue = this.holder.get();
+                    this.holder.set(!oldValue);
+                }
+                ConfigScreen.this.history.record(this.holder, oldValue, !oldValue);
+                button.setMessage(DialogTexts.optionsEnabled(this.holder.get()));
                 ConfigScreen.this.updateButtons();
             });
             this.eventListeners.add(this.button);
         }
 
+        @Override
+        protected void clearWidgets()
+        {
+            super.clearWidgets();
+            this.button = null;
+        }
+
         @Override
         public void render(MatrixStack matrixStack, int index, int top, int left, int width, int p_230432_6_, int mouseX, int mouseY, boolean hovered, float partialTicks)
         {
@@ -453,24 +710,40 @@ public class ConfigScreen extends ListMenuScreen
         @Override
         public void onResetValue()
         {
-            this.button.setMessage(DialogTexts.optionsEnabled(this.holder.get()));
+            if(this.button != null)
+            {
+                this.button.setMessage(DialogTexts.optionsEnabled(this.holder.get()));
+            }
         }
     }
 
     public class StringItem extends ConfigItem<String>
     {
-        private final Button button;
+        private Button button;
 
         public StringItem(IConfigValue<String> holder)
         {
             super(holder);
-            this.button = new Button(10, 5, 46, 20, new TranslationTextComponent("configured.gui.edit"), button -> Minecraft.getInstance().displayGuiScreen(new EditStringScreen(ConfigScreen.this, ConfigScreen.this.background, this.label, holder.get(), holder::isValid, s -> {
-                holder.set(s);
+        }
+
+        @Override
+        protected void createWidgets()
+        {
+            super.createWidgets();
+            this.button = new Button(10, 5, 46, 20, new TranslationTextComponent("configured.gui.edit"), button -> Minecraft.getInstance().displayGuiScreen(new EditStringScreen(ConfigScreen.this, ConfigScreen.this.background, this.label, this.holder.get(), this.holder::isValid, s -> {
+                ConfigScreen.this.setValue(this.holder, s);
                 ConfigScreen.this.updateButtons();
             })));
             this.eventListeners.add(this.button);
         }
 
+        @Override
+        protected void clearWidgets()
+        {
+            super.clearWidgets();
+            this.button = null;
+        }
+
         @Override
         public void render(MatrixStack matrixStack, int index, int top, int left, int width, int p_230432_6_, int mouseX, int mouseY, boolean hovered, float partialTicks)
         {
@@ -483,15 +756,28 @@ public class ConfigScreen extends ListMenuScreen
 
     public class ListItem extends ConfigItem<List<?>>
     {
-        private final Button button;
+        private Button button;
 
         public ListItem(IConfigValue<List<?>> holder)
         {
             super(holder);
-            this.button = new Button(10, 5, 46, 20, new TranslationTextComponent("configured.gui.edit"), button -> Minecraft.getInstance().displayGuiScreen(new EditListScreen(ConfigScreen.this, this.label, holder, ConfigScreen.this.background)));
+        }
+
+        @Override
+        protected void createWidgets()
+        {
+            super.createWidgets();
+            this.button = new Button(10, 5, 46, 20, new TranslationTextComponent("configured.gui.edit"), button -> Minecraft.getInstance().displayGuiScreen(new EditListScreen(ConfigScreen.this, this.label, this.holder, ConfigScreen.this.background, list -> ConfigScreen.this.setValue(this.holder, list))));
             this.eventListeners.add(this.button);
         }
 
+        @Override
+        protected void clearWidgets()
+        {
+            super.clearWidgets();
+            this.button = null;
+        }
+
         @Override
         public void render(MatrixStack matrixStack, int index, int top, int left, int width, int p_230432_6_, int mouseX, int mouseY, boolean hovered, float partialTicks)
         {
@@ -504,18 +790,31 @@ public class ConfigScreen extends ListMenuScreen
 
     public class EnumItem extends ConfigItem<Enum<?>>
     {
-        private final Button button;
+        private Button button;
 
         public EnumItem(IConfigValue<Enum<?>> holder)
         {
             super(holder);
-            this.button = new Button(10, 5, 46, 20, new TranslationTextComponent("configured.gui.change"), button -> Minecraft.getInstance().displayGuiScreen(new ChangeEnumScreen(ConfigScreen.this, this.label, ConfigScreen.this.background, holder.get(), e -> {
-                holder.set(e);
+        }
+
+        @Override
+        protected void createWidgets()
+        {
+            super.createWidgets();
+            this.button = new Button(10, 5, 46, 20, new TranslationTextComponent("configured.gui.change"), button -> Minecraft.getInstance().displayGuiScreen(new ChangeEnumScreen(ConfigScreen.this, this.label, ConfigScreen.this.background, this.holder.get(), e -> {
+                ConfigScreen.this.setValue(this.holder, e);
                 ConfigScreen.this.updateButtons();
             })));
             this.eventListeners.add(this.button);
         }
 
+        @Override
+        protected void clearWidgets()
+        {
+            super.clearWidgets();
+            this.button = null;
+        }
+
         @Override
         public void render(MatrixStack matrixStack, int index, int top, int left, int width, int p_230432_6_, int mouseX, int mouseY, boolean hovered, float partialTicks)
         {
@@ -554,6 +853,10 @@ public class ConfigScreen extends ListMenuScreen
      */
     public static String createLabel(String input)
     {
+        // Labels of config names are usually known from the spec metadata cache
+        String label = SpecMetadataCache.getLabel(input);
+        if(label != null)
+            return label;
         String valueName = input;
         // Try split by camel case
         String[] words = valueName.split("(?<!(^|[A-Z]))(?=[A-Z])|(?<!^)(?=[A-Z][a-z])");
@@ -581,16 +884,7 @@ public class ConfigScreen extends ListMenuScreen
      */
     public boolean isModified(IConfigEntry entry)
     {
-        if(entry.isLeaf())
-        {
-            IConfigValue<?> value = entry.getValue();
-            return value != null && value.isDefault();
-        }
-        for(IConfigEntry child : entry.getChildren())
-        {
-            if(this.isChanged(child)) return true;
-        }
-        return false;
+        return entry.isModified();
     }
 
     /**
@@ -601,15 +895,6 @@ public class ConfigScreen extends ListMenuScreen
      */
     public boolean isChanged(IConfigEntry entry)
     {
-        if(entry.isLeaf())
-        {
-            IConfigValue<?> value = entry.getValue();
-            return value != null && value.isChanged();
-        }
-        for(IConfigEntry child : entry.getChildren())
-        {
-            if(this.isChanged(child)) return true;
-        }
-        return false;
+        return entry.isChanged();
     }
 }
@@ -2,19 +2,16 @@ package com.mrcrayfish.configured.client.screen;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.primitives.Doubles;
-import com.google.common.primitives.Ints;
-import com.google.common.primitives.Longs;
 import com.mojang.blaze3d.matrix.MatrixStack;
 import com.mrcrayfish.configured.api.IConfigValue;
 import com.mrcrayfish.configured.client.screen.widget.IconButton;
+import com.mrcrayfish.configured.impl.ForgeListValue;
+import com.mrcrayfish.configured.util.ListType;
 
 import net.minecraft.client.gui.DialogTexts;
 import net.minecraft.client.gui.IGuiEventListener;
@@ -34,20 +31,29 @@ import net.minecraftforge.api.distmarker.OnlyIn;
  */
 public class EditListScreen extends Screen implements IBackgroundTexture
 {
-    private static final Map<IConfigValue<List<?>>, ListType> TYPE_CACHE = new HashMap<>();
-
     private final Screen parent;
     private final List<StringHolder> values = new ArrayList<>();
     private final ResourceLocation background;
     private final IConfigValue<List<?>> holder;
     private final ListType listType;
+    private final Consumer<List<?>> onSave;
     private ObjectList list;
 
     public EditListScreen(Screen parent, ITextComponent titleIn, IConfigValue<List<?>> holder, ResourceLocation background)
+    {
+        this(parent, titleIn, holder, background, holder::set);
+    }
+
+    /**
+     * @param onSave called with the new list when the changes are saved, instead of setting it
+     *               directly, which allows the caller to record the change
+     */
+    public EditListScreen(Screen parent, ITextComponent titleIn, IConfigValue<List<?>> holder, ResourceLocation background, Consumer<List<?>> onSave)
     {
         super(titleIn);
         this.parent = parent;
         this.holder = holder;
+        this.onSave = onSave;
         this.listType = getType(holder);
         this.values.addAll(holder.get().stream().map(o -> new StringHolder(this.listType.getStringParser().apply(o))).collect(Collectors.toList()));
         this.background = background;
@@ -61,7 +67,7 @@ public class EditListScreen extends Screen implements IBackgroundTexture
         this.children.add(this.list);
         this.addButton(new Button(this.width / 2 - 140, this.height - 29, 90, 20, DialogTexts.GUI_DONE, (button) -> {
             List<?> newValues = this.values.stream().map(StringHolder::getValue).map(s -> this.listType.getValueParser().apply(s)).collect(Collectors.toList());
-            this.holder.set(newValues);
+            this.onSave.accept(newValues);
             this.minecraft.displayGuiScreen(this.parent);
         }));
         this.addButton(new Button(this.width / 2 - 45, this.height - 29, 90, 20, new TranslationTextComponent("configured.gui.add_value"), (button) -> {
@@ -225,95 +231,10 @@ public class EditListScreen extends Screen implements IBackgroundTexture
 
     protected static ListType getType(IConfigValue<List<?>> holder)
     {
-        return TYPE_CACHE.computeIfAbsent(holder, value -> ListType.fromHolder(holder));
-    }
-
-    protected enum ListType
-    {
-        BOOLEAN(Object::toString, Boolean::valueOf),
-        INTEGER(Object::toString, Ints::tryParse),
-        LONG(Object::toString, Longs::tryParse),
-        DOUBLE(Object::toString, Doubles::tryParse),
-        STRING(Object::toString, o -> o),
-        UNKNOWN(Object::toString, o -> o);
-
-        final Function<Object, String> stringParser;
-        final Function<String, ?> valueParser;
-
-        ListType(Function<Object, String> stringParser, Function<String, ?> valueParser)
-        {
-            this.stringParser = stringParser;
-            this.valueParser = valueParser;
-        }
-
-        public Function<Object, String> getStringParser()
-        {
-            return this.stringParser;
-        }
-
-        public Function<String, ?> getValueParser()
-        {
-            return this.valueParser;
-        }
-
-        protected static ListType fromHolder(IConfigValue<List<?>> holder)
-        {
-            ListType type = UNKNOWN;
-            List<?> defaultList = holder.getDefault();
-            if(!defaultList.isEmpty())
-            {
-                type = fromObject(defaultList.get(0));
-            }
-            if(type == UNKNOWN)
-            {
-                type = fromElementValidator(holder);
-            }
-            return type;
-        }
-
-        protected static ListType fromObject(Object o)
-        {
-            if(o instanceof Boolean)
-            {
-                return BOOLEAN;
-            }
-            else if(o instanceof Integer)
-            {
-                return INTEGER;
-            }
-            else if(o instanceof Long)
-            {
-                return LONG;
-            }
-            else if(o instanceof Double)
-            {
-                return DOUBLE;
-            }
-            else if(o instanceof String)
-            {
-                return STRING;
-            }
-            return UNKNOWN;
-        }
-
-        /**
-         * Attempts to determine the type of list from the element validator. This currently
-         * used as a last resort since validation may fail even though it's the correct type.
-         * It may also return the incorrect type if the validator accepts everything.
-         */
-        private static ListType fromElementValidator(IConfigValue<List<?>> spec)
+        if(holder instanceof ForgeListValue)
         {
-            if(spec.isValid(Collections.singletonList("s")))
-                return STRING;
-            if(spec.isValid(Collections.singletonList(true)))
-                return BOOLEAN;
-            if(spec.isValid(Collections.singletonList(0.0D)))
-                return DOUBLE;
-            if(spec.isValid(Collections.singletonList(0L)))
-                return LONG;
-            if(spec.isValid(Collections.singletonList(0)))
-                return INTEGER;
-            return UNKNOWN;
+            return ((ForgeListValue) holder).getListType();
         }
+        return ListType.fromHolder(holder);
     }
 }
@@ -0,0 +1,136 @@
+package com.mrcrayfish.configured.client.screen;
+
+import com.google.common.collect.ImmutableList;
+import com.mrcrayfish.configured.api.IConfigEntry;
+import com.mrcrayfish.configured.api.IModConfig;
+import com.mrcrayfish.configured.client.ModConfigDescriptor;
+import com.mrcrayfish.configured.client.util.GlobalSearchIndex;
+import com.mojang.blaze3d.matrix.MatrixStack;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.AbstractGui;
+import net.minecraft.client.gui.DialogTexts;
+import net.minecraft.client.gui.IGuiEventListener;
+import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.client.gui.widget.button.Button;
+import net.minecraft.util.text.ITextComponent;
+import net.minecraft.util.text.StringTextComponent;
+import net.minecraft.util.text.TextFormatting;
+import net.minecraft.util.text.TranslationTextComponent;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+import net.minecraftforge.fml.config.ModConfig;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A screen to search the configs of every mod at once. Selecting a result opens the config
+ * screen of the folder that contains the value.
+ */
+@OnlyIn(Dist.CLIENT)
+public class GlobalSearchScreen extends ListMenuScreen
+{
+    private static final int MAX_RESULTS = 100;
+
+    private final GlobalSearchIndex index;
+
+    public GlobalSearchScreen(Screen parent, GlobalSearchIndex index)
+    {
+        super(parent, new TranslationTextComponent("configured.gui.title.global_search"), AbstractGui.BACKGROUND_LOCATION, 30);
+        this.index = index;
+    }
+
+    @Override
+    protected void constructEntries(List<Item> entries)
+    {
+        String key = this.index.isReady() ? "configured.gui.global_search_info" : "configured.gui.global_search_indexing";
+        entries.add(new SubTitleItem(new TranslationTextComponent(key).mergeStyle(TextFormatting.GRAY)));
+    }
+
+    @Override
+    protected void init()
+    {
+        super.init();
+        this.addButton(new Button(this.width / 2 - 75, this.height - 29, 150, 20, DialogTexts.GUI_BACK, button -> this.minecraft.displayGuiScreen(this.parent)));
+        this.setFocusedDefault(this.searchTextField);
+    }
+
+    @Override
+    protected void updateSearch(String s)
+    {
+        this.searchTextField.setSuggestion(s.isEmpty() ? new TranslationTextComponent("configured.gui.search").getString() : "");
+        if(s.isEmpty())
+        {
+            this.list.replaceEntries(this.entries);
+            return;
+        }
+        // Server configs can only be edited from the main menu
+        List<GlobalSearchIndex.Result> results = this.index.search(s, MAX_RESULTS, !isPlayingGame());
+        this.list.replaceEntries(results.stream().map(ResultItem::new).collect(Collectors.toList()));
+        this.list.setScrollAmount(0);
+    }
+
+    private void openResult(GlobalSearchIndex.Result result)
+    {
+        IModConfig config = result.getConfig();
+        ModConfigDescriptor descriptor = result.getDescriptor();
+        ITextComponent title = new StringTextComponent(descriptor.getDisplayName());
+        if(config.getConfigType() == ModConfig.Type.SERVER)
+        {
+            Minecraft.getInstance().displayGuiScreen(new WorldSelectionScreen(this, descriptor.getBackgroundTexture(), config, title));
+            return;
+        }
+
+        // Opens a screen for every folder leading to the value, so going back works like normal
+        ConfigScreen screen = new ConfigScreen(this, title, config, descriptor.getBackgroundTexture());
+        IConfigEntry folder = screen.folderEntry;
+        List<String> path = result.getPath();
+        for(String name : path.subList(0, path.size() - 1))
+        {
+            IConfigEntry child = folder.getChildren().stream().filter(entry -> !entry.isLeaf() && entry.getEntryName().equals(name)).findFirst().orElse(null);
+            if(child == null)
+                break;
+            title = title.copyRaw().appendString(" > " + ConfigScreen.createLabel(name));
+            screen = new ConfigScreen(screen, title, child);
+            folder = child;
+        }
+        Minecraft.getInstance().displayGuiScreen(screen);
+    }
+
+    public class ResultItem extends Item
+    {
+        private final GlobalSearchIndex.Result result;
+        private final ITextComponent location;
+        private final Button openButton;
+
+        public ResultItem(GlobalSearchIndex.Result result)
+        {
+            super(result.getLabel());
+            this.result = result;
+            List<String> path = result.getPath();
+            String folders = path.subList(0, path.size() - 1).stream().map(ConfigScreen::createLabel).map(s -> " > " + s).collect(Collectors.joining());
+            this.location = new StringTextComponent(result.getDescriptor().getDisplayName() + folders).mergeStyle(TextFormatting.GRAY);
+            this.openButton = new Button(0, 0, 50, 20, new TranslationTextComponent("configured.gui.modify"), onPress -> GlobalSearchScreen.this.openResult(this.result));
+            if(result.getComment() != null)
+            {
+                this.setTooltip(new StringTextComponent(result.getComment()), 200);
+            }
+        }
+
+        @Override
+        public List<? extends IGuiEventListener> getEventListeners()
+        {
+            return ImmutableList.of(this.openButton);
+        }
+
+        @Override
+        public void render(MatrixStack matrixStack, int x, int top, int left, int width, int p_230432_6_, int mouseX, int mouseY, boolean hovered, float partialTicks)
+        {
+            AbstractGui.drawString(matrixStack, Minecraft.getInstance().fontRenderer, this.label, left + 5, top + 2, 0xFFFFFF);
+            AbstractGui.drawString(matrixStack, Minecraft.getInstance().fontRenderer, this.location, left + 5, top + 12, 0xFFFFFF);
+            this.openButton.x = left + width - 51;
+            this.openButton.y = top;
+            this.openButton.render(matrixStack, mouseX, mouseY, partialTicks);
+        }
+    }
+}
@@ -4,6 +4,9 @@ import com.google.common.collect.ImmutableList;
 import com.mojang.blaze3d.matrix.MatrixStack;
 import com.mrcrayfish.configured.Reference;
 import com.mrcrayfish.configured.client.util.ScreenUtil;
+import com.mrcrayfish.configured.client.util.SearchIndex;
+import com.mrcrayfish.configured.client.util.TextLayoutCache;
+import com.mrcrayfish.configured.util.PerformanceMetrics;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.AbstractGui;
 import net.minecraft.client.gui.FontRenderer;
@@ -27,8 +30,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
-import java.util.stream.Collectors;
 
 /**
  * Author: MrCrayfish
@@ -42,6 +43,7 @@ public abstract class ListMenuScreen extends Screen implements IBackgroundTextur
     protected final int itemHeight;
     protected EntryList list;
     protected List<Item> entries;
+    protected SearchIndex<Item> searchIndex;
     protected List<IReorderingProcessor> activeTooltip;
     protected FocusedTextFieldWidget activeTextField;
     protected FocusedTextFieldWidget searchTextField;
@@ -57,33 +59,72 @@ public abstract class ListMenuScreen extends Screen implements IBackgroundTextur
     @Override
     protected void init()
     {
+        long start = PerformanceMetrics.start();
+
+        // Text layouts depend on the window size and language, which may have changed
+        TextLayoutCache.validate();
+
         // Constructs a list of entries and adds them to an option list
         List<Item> entries = new ArrayList<>();
+        long constructStart = PerformanceMetrics.start();
         this.constructEntries(entries);
+        PerformanceMetrics.stop(PerformanceMetrics.Timer.CONSTRUCT_ENTRIES, constructStart, this.getClass().getSimpleName());
         this.entries = ImmutableList.copyOf(entries); //Should this still be immutable?
+        this.searchIndex = new SearchIndex<>(this.entries, item -> !(item instanceof IIgnoreSearch));
         this.list = new EntryList(this.entries);
         this.list.func_244605_b(!isPlayingGame());
         this.children.add(this.list);
 
         // Adds a search text field to the top of the screen
         this.searchTextField = new FocusedTextFieldWidget(this.font, this.width / 2 - 110, 22, 220, 20, new StringTextComponent("Search"));
-        this.searchTextField.setResponder(s ->
-        {
-            ScreenUtil.updateSearchTextFieldSuggestion(this.searchTextField, s, this.entries);
-            this.list.replaceEntries(s.isEmpty() ? this.entries : this.entries.stream().filter(item -> {
-                return !(item instanceof IIgnoreSearch) && item.getLabel().toLowerCase(Locale.ENGLISH).contains(s.toLowerCase(Locale.ENGLISH));
-            }).collect(Collectors.toList()));
-            if(!s.isEmpty())
-            {
-                this.list.setScrollAmount(0);
-            }
-        });
+        this.searchTextField.setResponder(this::updateSearch);
         this.children.add(this.searchTextField);
-        ScreenUtil.updateSearchTextFieldSuggestion(this.searchTextField, "", this.entries);
+        ScreenUtil.updateSearchTextFieldSuggestion(this.searchTextField, "", this.searchIndex);
+        PerformanceMetrics.stop(PerformanceMetrics.Timer.SCREEN_INIT, start, this.getClass().getSimpleName());
     }
 
     protected abstract void constructEntries(List<Item> entries);
 
+    /**
+     * Replaces the entries of this screen after it has been initialised, for example once entries
+     * that are loaded in the background become available. The current search is applied to the
+     * new entries.
+     *
+     * @param entries the new entries of this screen
+     */
+    protected void updateEntries(List<Item> entries)
+    {
+        this.entries = ImmutableList.copyOf(entries);
+        this.searchIndex = new SearchIndex<>(this.entries, item -> !(item instanceof IIgnoreSearch));
+        String search = this.searchTextField.getText();
+        if(search.isEmpty())
+        {
+            this.list.replaceEntries(this.entries);
+        }
+        else
+        {
+            this.list.replaceEntries(this.searchIndex.search(search));
+        }
+    }
+
+    /**
+     * Called when the text of the search field changes. Updates the suggestion of the search field
+     * and replaces the entries in the list with the entries that match the search.
+     *
+     * @param s the text in the search field
+     */
+    protected void updateSearch(String s)
+    {
+        long start = PerformanceMetrics.start();
+        ScreenUtil.updateSearchTextFieldSuggestion(this.searchTextField, s, this.searchIndex);
+        this.list.replaceEntries(s.isEmpty() ? this.entries : this.searchIndex.search(s));
+        PerformanceMetrics.stop(PerformanceMetrics.Timer.SEARCH, start, this.getClass().getSimpleName());
+        if(!s.isEmpty())
+        {
+            this.list.setScrollAmount(0);
+        }
+    }
+
     @Override
     public ResourceLocation getBackgroundTexture()
     {
@@ -171,6 +212,9 @@ public abstract class ListMenuScreen extends Screen implements IBackgroundTextur
 
     protected class EntryList extends AbstractOptionList<Item> implements IBackgroundTexture
     {
+        private final List<Item> boundItems = new ArrayList<>();
+        private final List<Item> visibleItems = new ArrayList<>();
+
         public EntryList(List<Item> entries)
         {
             super(ListMenuScreen.this.minecraft, ListMenuScreen.this.width, ListMenuScreen.this.height, 50, ListMenuScreen.this.height - 36, ListMenuScreen.this.itemHeight);
@@ -205,10 +249,51 @@ public abstract class ListMenuScreen extends Screen implements IBackgroundTextur
         @Override
         public void render(MatrixStack matrixStack, int mouseX, int mouseY, float partialTicks)
         {
+            this.updateBoundItems();
             super.render(matrixStack, mouseX, mouseY, partialTicks);
             this.renderToolTips(matrixStack, mouseX, mouseY);
         }
 
+        /**
+         * Creates the widgets of items that have scrolled into view and releases the widgets of
+         * items that have scrolled out of view (or were removed by a search). This keeps the amount
+         * of widgets to the number of visible rows, regardless of how many items are in the list.
+         * The focused item is kept bound so it can continue to receive key input.
+         */
+        private void updateBoundItems()
+        {
+            List<Item> items = this.getEventListeners();
+            this.visibleItems.clear();
+            if(!items.isEmpty())
+            {
+                // Same visibility check as renderList, with an extra row either side
+                int firstTop = this.getRowTop(0);
+                int first = Math.max(0, Math.floorDiv(this.y0 - firstTop, this.itemHeight) - 1);
+                int last = Math.min(items.size() - 1, Math.floorDiv(this.y1 - firstTop, this.itemHeight) + 1);
+                for(int i = first; i <= last; i++)
+                {
+                    Item item = items.get(i);
+                    item.bindWidgets();
+                    this.visibleItems.add(item);
+                }
+            }
+            for(Item item : this.boundItems)
+            {
+                if(!this.visibleItems.contains(item) && item != this.getListener())
+                {
+                    item.releaseWidgets();
+                }
+            }
+            this.boundItems.removeIf(item -> !item.isBound());
+            this.visibleItems.forEach(item ->
+            {
+                if(!this.boundItems.contains(item))
+                {
+                    this.boundItems.add(item);
+                }
+            });
+        }
+
         private void renderToolTips(MatrixStack matrixStack, int mouseX, int mouseY)
         {
             if(this.isMouseOver(mouseX, mouseY) && mouseX < ListMenuScreen.this.list.getRowLeft() + ListMenuScreen.this.list.getRowWidth() - 67)
@@ -236,6 +321,7 @@ public abstract class ListMenuScreen extends Screen implements IBackgroundTextur
     {
         protected final ITextComponent label;
         protected List<IReorderingProcessor> tooltip;
+        private boolean bound;
 
         public Item(ITextComponent label)
         {
@@ -255,7 +341,45 @@ public abstract class ListMenuScreen extends Screen implements IBackgroundTextur
 
         public void setTooltip(ITextComponent text, int maxWidth)
         {
-            this.tooltip = ListMenuScreen.this.minecraft.fontRenderer.trimStringToWidth(text, maxWidth);
+            this.tooltip = TextLayoutCache.wrap(text, maxWidth);
+        }
+
+        /**
+         * Creates the widgets of this item. Items are only a lightweight model of a row, so anything
+         * that is only needed while the row is visible should be created here instead of in the
+         * constructor. Called by the list when the item scrolls into view.
+         */
+        protected void createWidgets() {}
+
+        /**
+         * Clears the widgets created in {@link #createWidgets()}. Called by the list when the item
+         * scrolls out of view.
+         */
+        protected void clearWidgets() {}
+
+        final void bindWidgets()
+        {
+            if(!this.bound)
+            {
+                this.createWidgets();
+                this.bound = true;
+            }
+        }
+
+        final void releaseWidgets()
+        {
+            if(this.bound)
+            {
+                this.setListener(null);
+                this.setDragging(false);
+                this.clearWidgets();
+                this.bound = false;
+            }
+        }
+
+        final boolean isBound()
+        {
+            return this.bound;
         }
 
         @Override
@@ -0,0 +1,66 @@
+package com.mrcrayfish.configured.client.screen;
+
+import com.mojang.blaze3d.matrix.MatrixStack;
+import net.minecraft.client.gui.DialogTexts;
+import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.client.gui.widget.button.Button;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.Util;
+import net.minecraft.util.text.ITextComponent;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A screen that is shown while a task is running in the background. Cancelling will cancel the
+ * future of the task and return to the parent screen. The screen does not close itself when the
+ * task completes, the task is expected to display the next screen.
+ */
+@OnlyIn(Dist.CLIENT)
+public class LoadingScreen extends Screen implements IBackgroundTexture
+{
+    private static final String[] DOTS = {"", ".", "..", "..."};
+
+    private final Screen parent;
+    private final ResourceLocation background;
+    private final CompletableFuture<?> future;
+
+    public LoadingScreen(Screen parent, ITextComponent message, ResourceLocation background, CompletableFuture<?> future)
+    {
+        super(message);
+        this.parent = parent;
+        this.background = background;
+        this.future = future;
+    }
+
+    @Override
+    protected void init()
+    {
+        this.addButton(new Button(this.width / 2 - 50, this.height / 2 + 10, 100, 20, DialogTexts.GUI_CANCEL, button -> this.closeScreen()));
+    }
+
+    @Override
+    public void closeScreen()
+    {
+        this.future.cancel(false);
+        this.minecraft.displayGuiScreen(this.parent);
+    }
+
+    @Override
+    public void render(MatrixStack matrixStack, int mouseX, int mouseY, float partialTicks)
+    {
+        this.renderBackground(matrixStack);
+        super.render(matrixStack, mouseX, mouseY, partialTicks);
+        String dots = DOTS[(int) (Util.milliTime() / 300L % DOTS.length)];
+        int width = this.font.getStringPropertyWidth(this.title);
+        this.font.func_243246_a(matrixStack, this.title, this.width / 2 - width / 2, this.height / 2 - 20, 0xFFFFFF);
+        this.font.drawStringWithShadow(matrixStack, dots, this.width / 2 + width / 2, this.height / 2 - 20, 0xFFFFFF);
+    }
+
+    @Override
+    public ResourceLocation getBackgroundTexture()
+    {
+        return this.background;
+    }
+}
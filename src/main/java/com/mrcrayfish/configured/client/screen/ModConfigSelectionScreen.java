@@ -6,7 +6,9 @@ import com.mojang.blaze3d.systems.RenderSystem;
 import com.mrcrayfish.configured.api.IConfigEntry;
 import com.mrcrayfish.configured.api.IConfigValue;
 import com.mrcrayfish.configured.api.IModConfig;
+import com.mrcrayfish.configured.client.ClientHandler;
 import com.mrcrayfish.configured.client.screen.widget.IconButton;
+import com.mrcrayfish.configured.client.util.TextLayoutCache;
 import com.mrcrayfish.configured.util.ConfigHelper;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.AbstractGui;
@@ -83,7 +85,9 @@ public class ModConfigSelectionScreen extends ListMenuScreen
     protected void init()
     {
         super.init();
-        this.addButton(new Button(this.width / 2 - 75, this.height - 29, 150, 20, DialogTexts.GUI_BACK, button -> this.minecraft.displayGuiScreen(this.parent)));
+        // Searching from here is the only way to reach server configs, since key bindings don't work in the main menu
+        this.addButton(new Button(this.width / 2 - 155, this.height - 29, 150, 20, new TranslationTextComponent("configured.gui.title.global_search"), button -> this.minecraft.displayGuiScreen(new GlobalSearchScreen(this, ClientHandler.getSearchIndex()))));
+        this.addButton(new Button(this.width / 2 + 5, this.height - 29, 150, 20, DialogTexts.GUI_BACK, button -> this.minecraft.displayGuiScreen(this.parent)));
     }
 
     @OnlyIn(Dist.CLIENT)
@@ -100,23 +104,25 @@ public class ModConfigSelectionScreen extends ListMenuScreen
         {
             super(createLabelFromModConfig(config));
             this.config = config;
-            this.title = this.createTrimmedFileName(createLabelFromModConfig(config));
-            this.fileName = this.createTrimmedFileName(config.getFileName()).mergeStyle(TextFormatting.GRAY);
+            this.title = this.createTrimmedFileName(new StringTextComponent(createLabelFromModConfig(config)));
+            this.fileName = this.createTrimmedFileName(new StringTextComponent(config.getFileName()).mergeStyle(TextFormatting.GRAY));
             this.modifyButton = this.createModifyButton(config);
             this.modifyButton.active = !ConfigScreen.isPlayingGame() || this.config.getConfigType() != ModConfig.Type.SERVER;
             if(config.getConfigType() != ModConfig.Type.SERVER || Minecraft.getInstance().player != null)
             {
+                TextLayoutCache.WrappedText resetTooltip = new TextLayoutCache.WrappedText(new TranslationTextComponent("configured.gui.reset_all"));
+                TextLayoutCache.WrappedText noPermissionTooltip = new TextLayoutCache.WrappedText(new TranslationTextComponent("configured.gui.no_permission").mergeStyle(TextFormatting.RED));
                 this.restoreButton = new IconButton(0, 0, 0, 0, onPress -> this.showRestoreScreen(), (button, matrixStack, mouseX, mouseY) ->
                 {
                     if(button.isHovered())
                     {
                         if(this.hasRequiredPermission() && button.active)
                         {
-                            ModConfigSelectionScreen.this.renderTooltip(matrixStack, Minecraft.getInstance().fontRenderer.trimStringToWidth(new TranslationTextComponent("configured.gui.reset_all"), Math.max(ModConfigSelectionScreen.this.width / 2 - 43, 170)), mouseX, mouseY);
+                            ModConfigSelectionScreen.this.renderTooltip(matrixStack, resetTooltip.get(Math.max(ModConfigSelectionScreen.this.width / 2 - 43, 170)), mouseX, mouseY);
                         }
                         else if(!this.hasRequiredPermission())
                         {
-                            ModConfigSelectionScreen.this.renderTooltip(matrixStack, Minecraft.getInstance().fontRenderer.trimStringToWidth(new TranslationTextComponent("configured.gui.no_permission").mergeStyle(TextFormatting.RED), Math.max(ModConfigSelectionScreen.this.width / 2 - 43, 170)), mouseX, mouseY);
+                            ModConfigSelectionScreen.this.renderTooltip(matrixStack, noPermissionTooltip.get(Math.max(ModConfigSelectionScreen.this.width / 2 - 43, 170)), mouseX, mouseY);
                         }
                     }
                 });
@@ -157,14 +163,13 @@ public class ModConfigSelectionScreen extends ListMenuScreen
             return true;
         }
 
-        private StringTextComponent createTrimmedFileName(String fileName)
+        private ITextComponent createTrimmedFileName(ITextComponent fileName)
         {
-            StringTextComponent trimmedFileName = new StringTextComponent(fileName);
-            if(Minecraft.getInstance().fontRenderer.getStringWidth(fileName) > 150)
+            if(Minecraft.getInstance().fontRenderer.getStringPropertyWidth(fileName) > 150)
             {
-                trimmedFileName = new StringTextComponent(Minecraft.getInstance().fontRenderer.func_238412_a_(fileName, 140) + "...");
+                return TextLayoutCache.trim(fileName, 140);
             }
-            return trimmedFileName;
+            return fileName;
         }
 
         /**
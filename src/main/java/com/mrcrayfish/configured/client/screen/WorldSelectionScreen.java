@@ -1,30 +1,34 @@
 package com.mrcrayfish.configured.client.screen;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Path;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.hash.Hashing;
 import com.mojang.blaze3d.matrix.MatrixStack;
+import com.mrcrayfish.configured.Configured;
 import com.mrcrayfish.configured.api.IModConfig;
 import com.mrcrayfish.configured.client.util.ScreenUtil;
+import com.mrcrayfish.configured.client.util.WorldIconCache;
+import com.mrcrayfish.configured.client.util.WorldSummaryCache;
+import com.mrcrayfish.configured.util.BatchConfigEditor;
+import com.mrcrayfish.configured.util.ConfigHelper;
 
-import net.minecraft.client.AnvilConverterException;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.AbstractGui;
 import net.minecraft.client.gui.DialogTexts;
 import net.minecraft.client.gui.IGuiEventListener;
 import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.client.gui.toasts.SystemToast;
 import net.minecraft.client.gui.widget.button.Button;
-import net.minecraft.client.renderer.texture.DynamicTexture;
-import net.minecraft.client.renderer.texture.NativeImage;
 import net.minecraft.util.ResourceLocation;
-import net.minecraft.util.Util;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraft.util.text.StringTextComponent;
 import net.minecraft.util.text.TextFormatting;
@@ -32,7 +36,10 @@ import net.minecraft.util.text.TranslationTextComponent;
 import net.minecraft.world.storage.FolderName;
 import net.minecraft.world.storage.SaveFormat;
 import net.minecraft.world.storage.WorldSummary;
+import net.minecraftforge.common.ForgeConfigSpec;
 import net.minecraftforge.fml.ModList;
+import net.minecraftforge.fml.config.ModConfig;
+import net.minecraftforge.fml.loading.FMLPaths;
 import net.minecraftforge.fml.loading.FileUtils;
 
 /**
@@ -44,27 +51,76 @@ public class WorldSelectionScreen extends ListMenuScreen
     private static final ResourceLocation MISSING_ICON = new ResourceLocation("textures/misc/unknown_server.png");
 
     private final IModConfig config;
+    @Nullable
+    private final ModConfig modConfig;
+    private List<WorldSummary> summaries;
 
     public WorldSelectionScreen(Screen parent, ResourceLocation background, IModConfig config, ITextComponent title)
     {
         super(parent, new TranslationTextComponent("configured.gui.edit_world_config", title.copyRaw().mergeStyle(TextFormatting.YELLOW)), background, 30);
         this.config = config;
+        this.modConfig = findModConfig(config);
+        WorldIconCache.invalidate();
+    }
+
+    /**
+     * Finds the Forge config of the given config, which is needed to copy it to other worlds
+     */
+    @Nullable
+    private static ModConfig findModConfig(IModConfig config)
+    {
+        ModConfig modConfig = ConfigHelper.getModConfig(config.getFileName());
+        return modConfig != null && modConfig.getSpec() instanceof ForgeConfigSpec ? modConfig : null;
     }
 
     @Override
     protected void constructEntries(List<Item> entries)
     {
-        try
+        // Shows the last known worlds straight away while the list is validated in the background
+        List<WorldSummary> cached = WorldSummaryCache.getCached();
+        if(cached != null)
         {
-            SaveFormat saveFormat = Minecraft.getInstance().getSaveLoader();
-            List<WorldSummary> saveList = saveFormat.getSaveList();
-            Collections.sort(saveList);
-            saveList.forEach(worldSummary -> entries.add(new WorldItem(worldSummary)));
+            this.summaries = cached;
+            cached.forEach(summary -> entries.add(new WorldItem(summary)));
         }
-        catch(AnvilConverterException e)
+        else
         {
-            e.printStackTrace();
+            entries.add(new SubTitleItem(new TranslationTextComponent("configured.gui.loading_worlds").mergeStyle(TextFormatting.GRAY)));
         }
+        WorldSummaryCache.load().whenCompleteAsync((summaries, throwable) ->
+        {
+            if(throwable != null)
+            {
+                this.onWorldsFailed();
+                return;
+            }
+            this.onWorldsLoaded(summaries);
+        }, this.minecraft);
+    }
+
+    private void onWorldsLoaded(List<WorldSummary> summaries)
+    {
+        // Ignore if the screen was closed or the worlds have not changed
+        if(this.minecraft.currentScreen != this || summaries == this.summaries)
+            return;
+        this.summaries = summaries;
+        List<Item> entries = new ArrayList<>();
+        summaries.forEach(summary -> entries.add(new WorldItem(summary)));
+        this.updateEntries(entries);
+    }
+
+    private void onWorldsFailed()
+    {
+        if(this.minecraft.currentScreen != this)
+            return;
+        // The error has already been logged, any worlds that were shown from the cache are kept
+        List<Item> entries = new ArrayList<>();
+        entries.add(new SubTitleItem(new TranslationTextComponent("configured.gui.load_worlds_failed").mergeStyle(TextFormatting.RED)));
+        if(this.summaries != null)
+        {
+            this.summaries.forEach(summary -> entries.add(new WorldItem(summary)));
+        }
+        this.updateEntries(entries);
     }
 
     @Override
@@ -77,6 +133,7 @@ public class WorldSelectionScreen extends ListMenuScreen
     @Override
     public void render(MatrixStack matrixStack, int mouseX, int mouseY, float partialTicks)
     {
+        WorldIconCache.processUploads();
         super.render(matrixStack, mouseX, mouseY, partialTicks);
         matrixStack.push();
         matrixStack.translate(this.width - 30, 15, 0);
@@ -95,101 +152,157 @@ public class WorldSelectionScreen extends ListMenuScreen
         }
     }
 
-    @Override
-    public void onClose()
+    private static void closeLevelSave(SaveFormat.LevelSave levelSave)
     {
-        super.onClose();
-        this.entries.forEach(item ->
+        try
         {
-            if(item instanceof WorldItem)
-            {
-                ((WorldItem) item).disposeIcon();
-            }
-        });
+            levelSave.close();
+        }
+        catch(IOException e)
+        {
+            e.printStackTrace();
+        }
     }
 
     public class WorldItem extends Item
     {
         private final ITextComponent worldName;
         private final ITextComponent folderName;
-        private final ResourceLocation iconId;
+        private final String fileName;
         private final File iconFile;
-        private final DynamicTexture texture;
         private final Button modifyButton;
+        private final Button copyButton;
 
         public WorldItem(WorldSummary summary)
         {
             super(summary.getDisplayName());
             this.worldName = new StringTextComponent(summary.getDisplayName());
             this.folderName = new StringTextComponent(summary.getFileName()).mergeStyle(TextFormatting.GRAY);
-            this.iconId = new ResourceLocation("minecraft", "worlds/" + Util.func_244361_a(summary.getFileName(), ResourceLocation::validatePathChar) + "/" + Hashing.sha1().hashUnencodedChars(summary.getFileName()) + "/icon");
-            this.iconFile = summary.getIconFile().isFile() ? summary.getIconFile() : null;
-            this.texture = this.loadWorldIcon();
+            this.fileName = summary.getFileName();
+            this.iconFile = summary.getIconFile();
             this.modifyButton = new Button(0, 0, 50, 20, new TranslationTextComponent("configured.gui.select"), onPress -> {
                 this.loadServerConfig(summary.getFileName(), summary.getDisplayName());
             });
+            this.copyButton = new Button(0, 0, 66, 20, new TranslationTextComponent("configured.gui.copy_to_all"), onPress -> {
+                this.copyToAllWorlds(summary.getFileName(), summary.getDisplayName());
+            });
+            this.copyButton.active = WorldSelectionScreen.this.modConfig != null;
         }
 
         @Override
         public List<? extends IGuiEventListener> getEventListeners()
         {
-            return ImmutableList.of(this.modifyButton);
+            return ImmutableList.of(this.copyButton, this.modifyButton);
         }
 
         @Override
         public void render(MatrixStack matrixStack, int x, int top, int left, int width, int p_230432_6_, int mouseX, int mouseY, boolean p_230432_9_, float partialTicks)
         {
-            WorldSelectionScreen.this.minecraft.getTextureManager().bindTexture(this.texture != null ? this.iconId : MISSING_ICON);
+            ResourceLocation icon = WorldIconCache.getIcon(this.fileName, this.iconFile);
+            WorldSelectionScreen.this.minecraft.getTextureManager().bindTexture(icon != null ? icon : MISSING_ICON);
             blit(matrixStack, left + 4, top, 22, 22, 0, 0, 64, 64, 64, 64);
             AbstractGui.drawString(matrixStack, WorldSelectionScreen.this.minecraft.fontRenderer, this.worldName, left + 32, top + 2, 0xFFFFFF);
             AbstractGui.drawString(matrixStack, WorldSelectionScreen.this.minecraft.fontRenderer, this.folderName, left + 32, top + 12, 0xFFFFFF);
             this.modifyButton.x = left + width - 51;
             this.modifyButton.y = top;
             this.modifyButton.render(matrixStack, mouseX, mouseY, partialTicks);
+            this.copyButton.x = left + width - 119;
+            this.copyButton.y = top;
+            this.copyButton.render(matrixStack, mouseX, mouseY, partialTicks);
         }
 
-        private DynamicTexture loadWorldIcon()
+        private void loadServerConfig(String worldFileName, String worldName)
         {
-            if(this.iconFile == null)
-                return null;
-            try(InputStream is = new FileInputStream(this.iconFile); NativeImage image = NativeImage.read(is))
+            Minecraft minecraft = WorldSelectionScreen.this.minecraft;
+            SaveFormat.LevelSave levelSave;
+            try
             {
-                if(image.getWidth() != 64 || image.getHeight() != 64)
-                    return null;
-                DynamicTexture texture = new DynamicTexture(image);
-                WorldSelectionScreen.this.minecraft.getTextureManager().loadTexture(this.iconId, texture);
-                return texture;
+                levelSave = minecraft.getSaveLoader().getLevelSave(worldFileName);
             }
-            catch(IOException ignored) {}
-            return null;
-        }
-
-        public void disposeIcon()
-        {
-            if(this.texture != null)
+            catch(IOException e)
             {
-                this.texture.close();
+                e.printStackTrace();
+                return;
             }
-        }
 
-        private void loadServerConfig(String worldFileName, String worldName)
-        {
-            try(SaveFormat.LevelSave levelSave = WorldSelectionScreen.this.minecraft.getSaveLoader().getLevelSave(worldFileName))
+            Path serverConfigPath;
+            try
             {
-                Path serverConfigPath = levelSave.resolveFilePath(SERVER_CONFIG_FOLDER);
+                serverConfigPath = levelSave.resolveFilePath(SERVER_CONFIG_FOLDER);
                 FileUtils.getOrCreateDirectory(serverConfigPath, "serverconfig");
-                WorldSelectionScreen.this.config.loadServerConfig(serverConfigPath, T ->
-                {
-                    ModList.get().getModContainerById(T.getModId()).ifPresent(container ->
-                    {
-                        WorldSelectionScreen.this.minecraft.displayGuiScreen(new ConfigScreen(WorldSelectionScreen.this.parent, new StringTextComponent(worldName), T, WorldSelectionScreen.this.background));
-                    });                	
-                });
             }
-            catch(IOException e)
+            catch(Exception e)
             {
+                closeLevelSave(levelSave);
                 e.printStackTrace();
+                return;
             }
+
+            // The level save is held until the config is no longer read to prevent the world from being opened
+            CompletableFuture<IModConfig> future = WorldSelectionScreen.this.config.loadServerConfigAsync(serverConfigPath, minecraft, () -> closeLevelSave(levelSave));
+
+            LoadingScreen loadingScreen = new LoadingScreen(WorldSelectionScreen.this, new TranslationTextComponent("configured.gui.loading_server_config"), WorldSelectionScreen.this.background, future);
+            minecraft.displayGuiScreen(loadingScreen);
+            future.whenCompleteAsync((config, throwable) ->
+            {
+                // Ignore if the loading screen was cancelled or closed
+                if(minecraft.currentScreen != loadingScreen)
+                    return;
+                if(throwable != null || config == null)
+                {
+                    if(throwable != null) Configured.LOGGER.error("Failed to load server config {}", WorldSelectionScreen.this.config.getFileName(), throwable);
+                    minecraft.displayGuiScreen(WorldSelectionScreen.this);
+                    return;
+                }
+                ModList.get().getModContainerById(config.getModId()).ifPresent(container ->
+                {
+                    minecraft.displayGuiScreen(new ConfigScreen(WorldSelectionScreen.this.parent, new StringTextComponent(worldName), config, WorldSelectionScreen.this.background));
+                });
+            }, minecraft);
+        }
+
+        private void copyToAllWorlds(String worldFileName, String worldName)
+        {
+            Minecraft minecraft = WorldSelectionScreen.this.minecraft;
+            ModConfig modConfig = WorldSelectionScreen.this.modConfig;
+            if(modConfig == null || WorldSelectionScreen.this.summaries == null)
+                return;
+
+            Path savesDirectory = FMLPaths.GAMEDIR.get().resolve("saves");
+            List<Path> worlds = WorldSelectionScreen.this.summaries.stream().map(WorldSummary::getFileName).filter(fileName -> !fileName.equals(worldFileName)).map(savesDirectory::resolve).collect(Collectors.toList());
+            ITextComponent message = new TranslationTextComponent("configured.gui.copy_to_all_message", modConfig.getFileName(), worldName, worlds.size());
+            ConfirmationScreen confirmScreen = new ConfirmationScreen(WorldSelectionScreen.this, message, result ->
+            {
+                if(!result)
+                    return true;
+                CompletableFuture<List<BatchConfigEditor.Result>> future = BatchConfigEditor.copy(modConfig, savesDirectory.resolve(worldFileName), worlds);
+                LoadingScreen loadingScreen = new LoadingScreen(WorldSelectionScreen.this, new TranslationTextComponent("configured.gui.copying_server_config"), WorldSelectionScreen.this.background, future);
+                minecraft.displayGuiScreen(loadingScreen);
+                future.whenCompleteAsync((results, throwable) ->
+                {
+                    // Cancelling has already returned to this screen
+                    if(throwable instanceof CancellationException)
+                        return;
+                    if(minecraft.currentScreen == loadingScreen)
+                    {
+                        minecraft.displayGuiScreen(WorldSelectionScreen.this);
+                    }
+                    if(throwable != null)
+                    {
+                        Configured.LOGGER.error("Failed to copy server config {}", modConfig.getFileName(), throwable);
+                        SystemToast.addOrUpdate(minecraft.getToastGui(), SystemToast.Type.WORLD_BACKUP, new TranslationTextComponent("configured.gui.copy_failed"), null);
+                        return;
+                    }
+                    // Worlds that failed have already been logged by the editor
+                    long updated = results.stream().filter(r -> r.getStatus() == BatchConfigEditor.Status.UPDATED).count();
+                    long failed = results.stream().filter(r -> r.getStatus() == BatchConfigEditor.Status.FAILED).count();
+                    ITextComponent summary = new TranslationTextComponent("configured.gui.copy_results", updated, results.size() - updated - failed, failed);
+                    SystemToast.addOrUpdate(minecraft.getToastGui(), SystemToast.Type.WORLD_BACKUP, new TranslationTextComponent("configured.gui.copied_server_config", results.size()), summary);
+                }, minecraft);
+                return false;
+            });
+            confirmScreen.setBackground(WorldSelectionScreen.this.background);
+            minecraft.displayGuiScreen(confirmScreen);
         }
     }
 }
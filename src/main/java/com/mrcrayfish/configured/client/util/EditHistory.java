@@ -0,0 +1,218 @@
+package com.mrcrayfish.configured.client.util;
+
+import com.google.common.collect.ImmutableList;
+import com.mrcrayfish.configured.api.IConfigValue;
+import com.mrcrayfish.configured.impl.ForgeValue;
+import net.minecraft.util.Util;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The undo and redo history of the edits made to the values of a config tree. Each edit only keeps
+ * references to the old and new values of the holders it changed, so the memory and time of an undo
+ * depends on the size of the edit and not on the size of the config. Values are never modified in
+ * place (lists are stored as immutable lists), so the references can be shared with the holders.
+ */
+@OnlyIn(Dist.CLIENT)
+public class EditHistory
+{
+    private static final int MAX_EDITS = 200;
+    private static final long MERGE_WINDOW_MS = 1000;
+
+    private final Deque<Edit> undoStack = new ArrayDeque<>();
+    private final Deque<Edit> redoStack = new ArrayDeque<>();
+
+    /**
+     * Records that a holder was set to a new value.
+     *
+     * @param holder   the holder that was set
+     * @param oldValue the value before it was set
+     * @param newValue the value after it was set
+     */
+    public <T> void record(IConfigValue<T> holder, T oldValue, T newValue)
+    {
+        if(!Objects.equals(oldValue, newValue))
+        {
+            this.push(new Edit(ImmutableList.of(new Change<>(holder, oldValue, newValue))));
+        }
+    }
+
+    /**
+     * Records an edit that is made by typing. Consecutive edits of the same holder are merged into
+     * a single edit while they are made in quick succession, so an undo reverts a whole word rather
+     * than a single character.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void recordTyping(IConfigValue<T> holder, T oldValue, T newValue)
+    {
+        // Text fields also respond when their text is updated from the value, such as after an undo
+        if(Objects.equals(oldValue, newValue))
+            return;
+        Edit last = this.undoStack.peekLast();
+        long time = Util.milliTime();
+        if(last != null && last.typing && last.changes.size() == 1 && last.changes.get(0).holder == holder && time - last.time < MERGE_WINDOW_MS)
+        {
+            Change<T> change = (Change<T>) last.changes.get(0);
+            this.undoStack.removeLast();
+            this.redoStack.clear();
+            if(!Objects.equals(change.oldValue, newValue))
+            {
+                Edit edit = new Edit(ImmutableList.of(new Change<>(holder, change.oldValue, newValue)));
+                edit.typing = true;
+                this.undoStack.addLast(edit);
+            }
+            return;
+        }
+        Edit edit = new Edit(ImmutableList.of(new Change<>(holder, oldValue, newValue)));
+        edit.typing = true;
+        this.push(edit);
+    }
+
+    /**
+     * Records an edit that changed several holders at once, such as restoring all defaults. The
+     * edit is undone as a whole.
+     *
+     * @param changes the changes of the edit
+     */
+    public void record(List<Change<?>> changes)
+    {
+        if(!changes.isEmpty())
+        {
+            this.push(new Edit(ImmutableList.copyOf(changes)));
+        }
+    }
+
+    private void push(Edit edit)
+    {
+        this.redoStack.clear();
+        this.undoStack.addLast(edit);
+        if(this.undoStack.size() > MAX_EDITS)
+        {
+            this.undoStack.removeFirst();
+        }
+    }
+
+    public boolean canUndo()
+    {
+        return !this.undoStack.isEmpty();
+    }
+
+    public boolean canRedo()
+    {
+        return !this.redoStack.isEmpty();
+    }
+
+    /**
+     * Reverts the last edit.
+     *
+     * @return the holders that were changed, which is empty if there was nothing to undo
+     */
+    public Set<IConfigValue<?>> undo()
+    {
+        Edit edit = this.undoStack.pollLast();
+        if(edit == null)
+            return Collections.emptySet();
+        this.redoStack.addLast(edit);
+        return edit.apply(true);
+    }
+
+    /**
+     * Applies the last edit that was undone again.
+     *
+     * @return the holders that were changed, which is empty if there was nothing to redo
+     */
+    public Set<IConfigValue<?>> redo()
+    {
+        Edit edit = this.redoStack.pollLast();
+        if(edit == null)
+            return Collections.emptySet();
+        this.undoStack.addLast(edit);
+        return edit.apply(false);
+    }
+
+    /**
+     * A change of a single holder
+     */
+    public static class Change<T>
+    {
+        private final IConfigValue<T> holder;
+        private final T oldValue;
+        private final T newValue;
+        private long oldFingerprint;
+        private long newFingerprint;
+        private boolean hasOldFingerprint;
+        private boolean hasNewFingerprint;
+
+        public Change(IConfigValue<T> holder, T oldValue, T newValue)
+        {
+            this.holder = holder;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+
+        /**
+         * Keeps the fingerprint of each state once the holder has computed it, so undoing and
+         * redoing the change again doesn't hash a large list again.
+         */
+        @SuppressWarnings("unchecked")
+        private void apply(boolean undo)
+        {
+            T value = undo ? this.oldValue : this.newValue;
+            if(!(this.holder instanceof ForgeValue))
+            {
+                this.holder.set(value);
+                return;
+            }
+            ForgeValue<T> holder = (ForgeValue<T>) this.holder;
+            if(undo ? this.hasOldFingerprint : this.hasNewFingerprint)
+            {
+                holder.set(value, undo ? this.oldFingerprint : this.newFingerprint);
+                return;
+            }
+            holder.set(value);
+            if(undo)
+            {
+                this.oldFingerprint = holder.getFingerprint();
+                this.hasOldFingerprint = true;
+            }
+            else
+            {
+                this.newFingerprint = holder.getFingerprint();
+                this.hasNewFingerprint = true;
+            }
+        }
+    }
+
+    private static class Edit
+    {
+        private final List<Change<?>> changes;
+        private final long time = Util.milliTime();
+        private boolean typing;
+
+        private Edit(List<Change<?>> changes)
+        {
+            this.changes = changes;
+        }
+
+        private Set<IConfigValue<?>> apply(boolean undo)
+        {
+            Set<IConfigValue<?>> holders = Collections.newSetFromMap(new IdentityHashMap<>());
+            for(int i = 0; i < this.changes.size(); i++)
+            {
+                // Changes are undone in reverse order in case an edit changed the same holder twice
+                Change<?> change = this.changes.get(undo ? this.changes.size() - 1 - i : i);
+                change.apply(undo);
+                holders.add(change.holder);
+            }
+            return holders;
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package com.mrcrayfish.configured.client.util;
+
+import com.google.common.collect.ImmutableList;
+import com.mrcrayfish.configured.Configured;
+import com.mrcrayfish.configured.api.IModConfig;
+import com.mrcrayfish.configured.client.ModConfigDescriptor;
+import com.mrcrayfish.configured.client.screen.ConfigScreen;
+import com.mrcrayfish.configured.util.ConfigHelper;
+import com.mrcrayfish.configured.util.PerformanceMetrics;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import net.minecraft.client.resources.I18n;
+import net.minecraft.util.Util;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+import net.minecraftforge.common.ForgeConfigSpec;
+import net.minecraftforge.fml.config.ModConfig;
+import org.apache.commons.lang3.tuple.Pair;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An inverted index of the paths, labels, comments and translation keys of the configs of every
+ * mod. It's built on a worker thread after the config factories have been generated. Everything
+ * that is indexed comes from the specs, so reloading a config doesn't change the index. Every
+ * config is indexed again when the language changes, since labels may come from translations.
+ * Building and rebuilding are done one after another, so a rebuild always replaces the segments
+ * of the initial build.
+ */
+@OnlyIn(Dist.CLIENT)
+public class GlobalSearchIndex
+{
+    private static final int LABEL_WEIGHT = 8;
+    private static final int PATH_WEIGHT = 4;
+    private static final int TRANSLATION_KEY_WEIGHT = 2;
+    private static final int COMMENT_WEIGHT = 1;
+
+    private final Map<ModConfig, Segment> segments = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    private CompletableFuture<Void> tasks = CompletableFuture.completedFuture(null);
+
+    /**
+     * Indexes the configs of the given mods on a worker thread. Any existing segments are kept
+     * until they are replaced. Only the specs of the configs are indexed, so this doesn't create
+     * the {@link IModConfig} wrappers of the mods.
+     *
+     * @param descriptors the descriptors of the mods to index
+     * @return a future that completes once the index has been built
+     */
+    public synchronized CompletableFuture<Void> build(List<ModConfigDescriptor> descriptors)
+    {
+        this.tasks = this.tasks.thenRunAsync(() ->
+        {
+            long start = System.currentTimeMillis();
+            descriptors.forEach(descriptor -> descriptor.getSpecs().forEach(pair -> this.index(descriptor, pair.getLeft(), pair.getRight())));
+            this.ready = true;
+            Configured.LOGGER.info("Indexed {} config(s) for searching in {}ms", this.segments.size(), System.currentTimeMillis() - start);
+        }, Util.getServerExecutor());
+        return this.tasks;
+    }
+
+    /**
+     * Indexes every config again on a worker thread, once any build or rebuild before it has
+     * finished. Labels from translation keys are indexed in the current language, so this is
+     * called when the language changes.
+     */
+    public synchronized void rebuild()
+    {
+        this.tasks = this.tasks.thenRunAsync(() ->
+        {
+            List<Segment> segments = new ArrayList<>(this.segments.values());
+            segments.forEach(segment -> this.index(segment.descriptor, segment.config, segment.spec));
+        }, Util.getServerExecutor());
+    }
+
+    /**
+     * @return true once the initial build of the index has finished
+     */
+    public boolean isReady()
+    {
+        return this.ready;
+    }
+
+    private void index(ModConfigDescriptor descriptor, ModConfig config, ForgeConfigSpec spec)
+    {
+        try
+        {
+            // The spec contains everything that is indexed, so it works even if the config is not loaded
+            Segment.Builder builder = new Segment.Builder(descriptor, config, spec, SpecMetadataCache.get(config.getFileName(), spec));
+            for(Pair<ForgeConfigSpec.ConfigValue<?>, ForgeConfigSpec.ValueSpec> pair : ConfigHelper.gatherAllForgeConfigValues(spec.getValues(), spec))
+            {
+                ForgeConfigSpec.ValueSpec valueSpec = pair.getRight();
+                builder.add(pair.getLeft().getPath(), valueSpec.getComment(), valueSpec.getTranslationKey());
+            }
+            this.segments.put(config, builder.build());
+        }
+        catch(Exception e)
+        {
+            Configured.LOGGER.error("Failed to index config {} for searching", config.getFileName(), e);
+        }
+    }
+
+    /**
+     * Searches every indexed config. All words of the query must match the start of a word in the
+     * label, path, translation key or comment of a value. Matches in the label rank the highest
+     * and matches in the comment rank the lowest.
+     *
+     * @param query         the user input
+     * @param limit         the maximum amount of results
+     * @param includeServer if server configs should be included
+     * @return the results, ordered from best to worst match
+     */
+    public List<Result> search(String query, int limit, boolean includeServer)
+    {
+        String[] words = tokenize(query);
+        if(words.length == 0)
+            return ImmutableList.of();
+
+        long start = PerformanceMetrics.start();
+        List<Result> results = new ArrayList<>();
+        for(Segment segment : this.segments.values())
+        {
+            if(includeServer || segment.config.getType() != ModConfig.Type.SERVER)
+            {
+                segment.search(words, results);
+            }
+        }
+        results.sort(Comparator.comparingInt(Result::getScore).reversed().thenComparing(Result::getLabel));
+        PerformanceMetrics.stop(PerformanceMetrics.Timer.SEARCH, start, "global");
+        return results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+    }
+
+    /**
+     * Splits the given text into lower case words. Camel case words are split as well, since
+     * config names are usually camel case.
+     */
+    static String[] tokenize(@Nullable String text)
+    {
+        if(text == null || text.isEmpty())
+            return new String[0];
+        String words = ConfigScreen.createLabel(text).toLowerCase(Locale.ENGLISH);
+        return Arrays.stream(words.split("[^\\p{L}\\p{N}]+")).filter(s -> !s.isEmpty()).toArray(String[]::new);
+    }
+
+    private static String createLabel(List<String> path, @Nullable String translationKey)
+    {
+        if(translationKey != null && I18n.hasKey(translationKey))
+        {
+            return I18n.format(translationKey);
+        }
+        return ConfigScreen.createLabel(path.get(path.size() - 1));
+    }
+
+    /**
+     * The index of a single config. Words are stored in sorted order, so all words starting with
+     * a query word can be found with a binary search.
+     */
+    private static class Segment
+    {
+        private final ModConfigDescriptor descriptor;
+        private final ModConfig config;
+        private final ForgeConfigSpec spec;
+        private final List<Result> documents;
+        private final String[] words;
+        private final int[][] documentIds;
+        private final int[][] weights;
+
+        private Segment(ModConfigDescriptor descriptor, ModConfig config, ForgeConfigSpec spec, List<Result> documents, TreeMap<String, Int2IntMap> postings)
+        {
+            this.descriptor = descriptor;
+            this.config = config;
+            this.spec = spec;
+            this.documents = documents;
+            this.words = postings.keySet().toArray(new String[0]);
+            this.documentIds = new int[this.words.length][];
+            this.weights = new int[this.words.length][];
+            for(int i = 0; i < this.words.length; i++)
+            {
+                Int2IntMap map = postings.get(this.words[i]);
+                this.documentIds[i] = map.keySet().toIntArray();
+                this.weights[i] = new int[this.documentIds[i].length];
+                for(int j = 0; j < this.documentIds[i].length; j++)
+                {
+                    this.weights[i][j] = map.get(this.documentIds[i][j]);
+                }
+            }
+        }
+
+        private void search(String[] queryWords, List<Result> results)
+        {
+            Int2IntMap scores = null;
+            for(String queryWord : queryWords)
+            {
+                Int2IntMap wordScores = new Int2IntOpenHashMap();
+                int index = this.lowerBound(queryWord);
+                while(index < this.words.length && this.words[index].startsWith(queryWord))
+                {
+                    // Whole word matches are preferred over prefix matches
+                    int multiplier = this.words[index].length() == queryWord.length() ? 2 : 1;
+                    for(int i = 0; i < this.documentIds[index].length; i++)
+                    {
+                        int score = this.weights[index][i] * multiplier;
+                        int id = this.documentIds[index][i];
+                        if(score > wordScores.get(id))
+                        {
+                            wordScores.put(id, score);
+                        }
+                    }
+                    index++;
+                }
+                if(scores == null)
+                {
+                    scores = wordScores;
+                }
+                else
+                {
+                    // Only keep the documents that matched every word
+                    Int2IntMap combined = new Int2IntOpenHashMap();
+                    for(Int2IntMap.Entry entry : wordScores.int2IntEntrySet())
+                    {
+                        int previous = scores.get(entry.getIntKey());
+                        if(previous > 0)
+                        {
+                            combined.put(entry.getIntKey(), previous + entry.getIntValue());
+                        }
+                    }
+                    scores = combined;
+                }
+                if(scores.isEmpty())
+                    return;
+            }
+            for(Int2IntMap.Entry entry : scores.int2IntEntrySet())
+            {
+                results.add(this.documents.get(entry.getIntKey()).withScore(entry.getIntValue()));
+            }
+        }
+
+        private int lowerBound(String word)
+        {
+            int low = 0;
+            int high = this.words.length;
+            while(low < high)
+            {
+                int mid = (low + high) >>> 1;
+                if(this.words[mid].compareTo(word) < 0)
+                {
+                    low = mid + 1;
+                }
+                else
+                {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static class Builder
+        {
+            private final ModConfigDescriptor descriptor;
+            private final ModConfig config;
+            private final ForgeConfigSpec spec;
+            private final List<Result> documents = new ArrayList<>();
+            private final TreeMap<String, Int2IntMap> postings = new TreeMap<>();
+            @Nullable
+            private final SpecMetadataCache.SpecMetadata metadata;
+
+            private Builder(ModConfigDescriptor descriptor, ModConfig config, ForgeConfigSpec spec, @Nullable SpecMetadataCache.SpecMetadata metadata)
+            {
+                this.descriptor = descriptor;
+                this.config = config;
+                this.spec = spec;
+                this.metadata = metadata;
+            }
+
+            private void add(List<String> path, @Nullable String comment, @Nullable String translationKey)
+            {
+                int id = this.documents.size();
+                String label = createLabel(path, translationKey);
+                this.documents.add(new Result(this.descriptor, this.config, ImmutableList.copyOf(path), label, comment, 0));
+                this.addWords(id, this.tokenize(label), LABEL_WEIGHT);
+                path.forEach(name -> this.addWords(id, this.tokenize(name), PATH_WEIGHT));
+                this.addWords(id, this.tokenize(translationKey), TRANSLATION_KEY_WEIGHT);
+                this.addWords(id, this.tokenize(comment), COMMENT_WEIGHT);
+            }
+
+            /**
+             * Uses the words from the cached metadata of the spec if available. Translated labels
+             * are not cached, since they depend on the current language.
+             */
+            private String[] tokenize(@Nullable String text)
+            {
+                if(text != null && this.metadata != null)
+                {
+                    String[] words = this.metadata.getWords(text);
+                    if(words != null)
+                        return words;
+                }
+                return GlobalSearchIndex.tokenize(text);
+            }
+
+            private void addWords(int id, String[] words, int weight)
+            {
+                for(String word : words)
+                {
+                    Int2IntMap map = this.postings.computeIfAbsent(word, s -> new Int2IntOpenHashMap());
+                    if(map.get(id) < weight)
+                    {
+                        map.put(id, weight);
+                    }
+                }
+            }
+
+            private Segment build()
+            {
+                return new Segment(this.descriptor, this.config, this.spec, this.documents, this.postings);
+            }
+        }
+    }
+
+    /**
+     * A config value that matched a search
+     */
+    public static class Result
+    {
+        private final ModConfigDescriptor descriptor;
+        private final ModConfig config;
+        private final List<String> path;
+        private final String label;
+        @Nullable
+        private final String comment;
+        private final int score;
+
+        private Result(ModConfigDescriptor descriptor, ModConfig config, List<String> path, String label, @Nullable String comment, int score)
+        {
+            this.descriptor = descriptor;
+            this.config = config;
+            this.path = path;
+            this.label = label;
+            this.comment = comment;
+            this.score = score;
+        }
+
+        private Result withScore(int score)
+        {
+            return new Result(this.descriptor, this.config, this.path, this.label, this.comment, score);
+        }
+
+        public ModConfigDescriptor getDescriptor()
+        {
+            return this.descriptor;
+        }
+
+        /**
+         * Gets the config that contains the value. The configs of the mod are wrapped the first
+         * time this is called, so this should only be called once the result is opened.
+         */
+        public IModConfig getConfig()
+        {
+            return this.descriptor.getConfig(this.config);
+        }
+
+        public ModConfig.Type getConfigType()
+        {
+            return this.config.getType();
+        }
+
+        /**
+         * @return the path of the value, including the name of the value itself
+         */
+        public List<String> getPath()
+        {
+            return this.path;
+        }
+
+        public String getLabel()
+        {
+            return this.label;
+        }
+
+        @Nullable
+        public String getComment()
+        {
+            return this.comment;
+        }
+
+        public int getScore()
+        {
+            return this.score;
+        }
+    }
+}
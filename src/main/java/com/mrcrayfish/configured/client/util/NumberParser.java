@@ -0,0 +1,125 @@
+package com.mrcrayfish.configured.client.util;
+
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+
+/**
+ * Tests if text typed into a text field is a number before it is parsed. Parsing invalid text with
+ * the methods of {@link Long} or {@link Double} throws an exception, which is expensive when it
+ * happens on almost every key press.
+ */
+@OnlyIn(Dist.CLIENT)
+public class NumberParser
+{
+    /**
+     * Determines if the text can be parsed with {@link Long#parseLong(String)}. This is an optional
+     * sign followed by decimal digits, including non-ASCII digits, with a value that fits into a long.
+     *
+     * @param text the text to test
+     * @return true if the text is a valid long
+     */
+    public static boolean isLong(String text)
+    {
+        int length = text.length();
+        int start = length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+') ? 1 : 0;
+        if(start == length)
+            return false;
+
+        // Accumulates negatively like Long#parseLong, since the minimum value has no positive counterpart
+        long limit = text.charAt(0) == '-' ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long result = 0;
+        for(int i = start; i < length; i++)
+        {
+            int digit = Character.digit(text.charAt(i), 10);
+            if(digit < 0)
+                return false;
+            if(result < limit / 10)
+                return false;
+            result *= 10;
+            if(result < limit + digit)
+                return false;
+            result -= digit;
+        }
+        return true;
+    }
+
+    /**
+     * Determines if the text can be parsed with {@link Double#parseDouble(String)}. This accepts the
+     * same input, which is surrounding whitespace, an optional sign, digits with an optional decimal
+     * point, an optional exponent and an optional type suffix, or the special values <code>NaN</code>
+     * and <code>Infinity</code>. Hexadecimal numbers are rare enough that they are tested by parsing.
+     *
+     * @param text the text to test
+     * @return true if the text is a valid double
+     */
+    public static boolean isDouble(String text)
+    {
+        // Whitespace is trimmed the same way as String#trim, like Double#parseDouble does
+        int i = 0;
+        int end = text.length();
+        while(i < end && text.charAt(i) <= ' ')
+            i++;
+        while(end > i && text.charAt(end - 1) <= ' ')
+            end--;
+        if(i < end && (text.charAt(i) == '-' || text.charAt(i) == '+'))
+            i++;
+        if(text.startsWith("Infinity", i))
+            return i + 8 == end;
+        if(text.startsWith("NaN", i))
+            return i + 3 == end;
+        if(i + 1 < end && text.charAt(i) == '0' && (text.charAt(i + 1) == 'x' || text.charAt(i + 1) == 'X'))
+            return parsesAsDouble(text);
+        int digits = 0;
+        while(i < end && isDigit(text.charAt(i)))
+        {
+            i++;
+            digits++;
+        }
+        if(i < end && text.charAt(i) == '.')
+        {
+            i++;
+            while(i < end && isDigit(text.charAt(i)))
+            {
+                i++;
+                digits++;
+            }
+        }
+        if(digits == 0)
+            return false;
+        if(i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E'))
+        {
+            i++;
+            if(i < end && (text.charAt(i) == '-' || text.charAt(i) == '+'))
+                i++;
+            int exponentDigits = 0;
+            while(i < end && isDigit(text.charAt(i)))
+            {
+                i++;
+                exponentDigits++;
+            }
+            if(exponentDigits == 0)
+                return false;
+        }
+        if(i < end && "fFdD".indexOf(text.charAt(i)) >= 0)
+            i++;
+        return i == end;
+    }
+
+    private static boolean parsesAsDouble(String text)
+    {
+        try
+        {
+            Double.parseDouble(text);
+            return true;
+        }
+        catch(NumberFormatException e)
+        {
+            return false;
+        }
+    }
+
+    private static boolean isDigit(char c)
+    {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -1,7 +1,6 @@
 package com.mrcrayfish.configured.client.util;
 
 import com.mrcrayfish.configured.client.screen.ILabelProvider;
-import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.gui.widget.TextFieldWidget;
 import net.minecraft.client.gui.widget.button.Button;
@@ -13,6 +12,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * Author: MrCrayfish
@@ -60,11 +60,12 @@ public class ScreenUtil
      */
     public static Button.ITooltip createButtonTooltip(Screen screen, ITextComponent message, int maxWidth, Predicate<Button> predicate)
     {
+        TextLayoutCache.WrappedText text = new TextLayoutCache.WrappedText(message);
         return (button, matrixStack, mouseX, mouseY) ->
         {
             if(predicate.test(button))
             {
-                screen.renderTooltip(matrixStack, Minecraft.getInstance().fontRenderer.trimStringToWidth(message, maxWidth), mouseX, mouseY);
+                screen.renderTooltip(matrixStack, text.get(maxWidth), mouseX, mouseY);
             }
         };
     }
@@ -97,4 +98,41 @@ public class ScreenUtil
             textField.setSuggestion(new TranslationTextComponent("configured.gui.search").getString());
         }
     }
+
+    /**
+     * Updates the suggestion of a {@link TextFieldWidget} based on a search index. Unlike
+     * {@link #updateSearchTextFieldSuggestion(TextFieldWidget, String, List)} this doesn't need
+     * to go through every label.
+     *
+     * @param textField the text field to update the suggestion
+     * @param value     the user input value
+     * @param index     the search index to test the user input against
+     */
+    public static void updateSearchTextFieldSuggestion(TextFieldWidget textField, String value, SearchIndex<?> index)
+    {
+        if(!value.isEmpty())
+        {
+            String label = index.findSuggestion(value);
+            textField.setSuggestion(label != null ? label.substring(value.length()) : "");
+        }
+        else
+        {
+            textField.setSuggestion(new TranslationTextComponent("configured.gui.search").getString());
+        }
+    }
+
+    /**
+     * Filters a list of label providers to only the entries that have a label containing the
+     * user input. The comparison is case insensitive.
+     *
+     * @param entries    the entries to filter
+     * @param value      the user input value
+     * @param searchable a condition to determine if an entry can be found by searching
+     * @return a new list of the matching entries
+     */
+    public static <T extends ILabelProvider> List<T> filterByLabel(List<T> entries, String value, Predicate<T> searchable)
+    {
+        String query = value.toLowerCase(Locale.ENGLISH);
+        return entries.stream().filter(entry -> searchable.test(entry) && entry.getLabel().toLowerCase(Locale.ENGLISH).contains(query)).collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,194 @@
+package com.mrcrayfish.configured.client.util;
+
+import com.mrcrayfish.configured.client.screen.ILabelProvider;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * An index of the labels of a list of entries that allows them to be searched while the user is
+ * typing without going through every label on each key press. The index holds the lower case
+ * labels, the labels in sorted order to find suggestions with a binary search, and the entries
+ * that contain every trigram (three characters in a row) to narrow down substring searches.
+ * If the query only grows, the results of the previous search are narrowed down instead.
+ */
+public class SearchIndex<T extends ILabelProvider>
+{
+    private static final int[] NO_RESULTS = new int[0];
+
+    private final List<T> entries = new ArrayList<>();
+    private final String[] labels;
+    private final int[] sorted;
+    private final Long2ObjectMap<int[]> trigrams = new Long2ObjectOpenHashMap<>();
+    private String lastQuery;
+    private int[] lastResult;
+
+    /**
+     * @param entries    the entries to index
+     * @param searchable a condition to determine if an entry can be found by searching
+     */
+    public SearchIndex(List<T> entries, Predicate<T> searchable)
+    {
+        entries.stream().filter(searchable).forEach(this.entries::add);
+        this.labels = new String[this.entries.size()];
+        for(int i = 0; i < this.labels.length; i++)
+        {
+            this.labels[i] = this.entries.get(i).getLabel().toLowerCase(Locale.ENGLISH);
+        }
+        this.sorted = new int[this.labels.length];
+        for(int i = 0; i < this.sorted.length; i++)
+        {
+            this.sorted[i] = i;
+        }
+        IntArrays.quickSort(this.sorted, (a, b) -> this.labels[a].compareTo(this.labels[b]));
+        this.indexTrigrams();
+    }
+
+    private void indexTrigrams()
+    {
+        Long2ObjectMap<IntArrayList> postings = new Long2ObjectOpenHashMap<>();
+        for(int i = 0; i < this.labels.length; i++)
+        {
+            String label = this.labels[i];
+            for(int j = 0; j + 3 <= label.length(); j++)
+            {
+                long key = trigram(label, j);
+                IntArrayList list = postings.get(key);
+                if(list == null)
+                {
+                    list = new IntArrayList();
+                    postings.put(key, list);
+                }
+                // Entries are added in order, so a repeated trigram in the same label is always last
+                if(list.isEmpty() || list.getInt(list.size() - 1) != i)
+                {
+                    list.add(i);
+                }
+            }
+        }
+        for(Long2ObjectMap.Entry<IntArrayList> entry : postings.long2ObjectEntrySet())
+        {
+            this.trigrams.put(entry.getLongKey(), entry.getValue().toIntArray());
+        }
+    }
+
+    private static long trigram(String s, int index)
+    {
+        return ((long) s.charAt(index) << 32) | ((long) s.charAt(index + 1) << 16) | s.charAt(index + 2);
+    }
+
+    /**
+     * Finds the entries that contain the given value in their label. The comparison is case
+     * insensitive and the entries are returned in their original order.
+     *
+     * @param value the user input value
+     * @return a new list of the matching entries
+     */
+    public List<T> search(String value)
+    {
+        String query = value.toLowerCase(Locale.ENGLISH);
+        int[] result;
+        if(this.lastQuery != null && query.contains(this.lastQuery))
+        {
+            // Anything that contains the new query also contained the old one
+            result = this.filter(this.lastResult, query);
+        }
+        else if(query.length() >= 3)
+        {
+            result = this.filter(this.findCandidates(query), query);
+        }
+        else
+        {
+            result = this.filter(null, query);
+        }
+        this.lastQuery = query;
+        this.lastResult = result;
+
+        List<T> entries = new ArrayList<>(result.length);
+        for(int index : result)
+        {
+            entries.add(this.entries.get(index));
+        }
+        return entries;
+    }
+
+    /**
+     * Gets the entries that contain the trigram of the query with the fewest entries. Only the
+     * candidates can contain the query, but they still need to be checked.
+     */
+    private int[] findCandidates(String query)
+    {
+        int[] candidates = null;
+        for(int i = 0; i + 3 <= query.length(); i++)
+        {
+            int[] postings = this.trigrams.get(trigram(query, i));
+            if(postings == null)
+            {
+                return NO_RESULTS;
+            }
+            if(candidates == null || postings.length < candidates.length)
+            {
+                candidates = postings;
+            }
+        }
+        return candidates != null ? candidates : NO_RESULTS;
+    }
+
+    /**
+     * Filters the given candidates to the ones that contain the query. If candidates is null,
+     * every entry is a candidate.
+     */
+    private int[] filter(@Nullable int[] candidates, String query)
+    {
+        int count = candidates != null ? candidates.length : this.labels.length;
+        int[] result = new int[count];
+        int size = 0;
+        for(int i = 0; i < count; i++)
+        {
+            int index = candidates != null ? candidates[i] : i;
+            if(this.labels[index].contains(query))
+            {
+                result[size++] = index;
+            }
+        }
+        return size == count ? result : IntArrays.trim(result, size);
+    }
+
+    /**
+     * Finds the alphabetically first label that starts with the given value
+     *
+     * @param value the user input value
+     * @return the label or null if no label starts with the value
+     */
+    @Nullable
+    public String findSuggestion(String value)
+    {
+        String query = value.toLowerCase(Locale.ENGLISH);
+        int low = 0;
+        int high = this.sorted.length;
+        while(low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if(this.labels[this.sorted[mid]].compareTo(query) < 0)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+        if(low < this.sorted.length && this.labels[this.sorted[low]].startsWith(query))
+        {
+            return this.entries.get(this.sorted[low]).getLabel();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,398 @@
+package com.mrcrayfish.configured.client.util;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.mrcrayfish.configured.Configured;
+import com.mrcrayfish.configured.client.screen.ConfigScreen;
+import com.mrcrayfish.configured.util.ConfigHelper;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+import net.minecraftforge.common.ForgeConfigSpec;
+import net.minecraftforge.fml.loading.FMLPaths;
+import org.apache.commons.lang3.tuple.Pair;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of metadata derived from Forge config specs, such as the labels of config names and the
+ * words used by the search index. The metadata is persisted to a binary file, keyed by the file name
+ * of the config and a hash of the text of its spec, so later launches only derive the metadata of
+ * specs that have changed. Anything that depends on the behaviour of a spec, such as the element
+ * type of a list which is inferred with its validator, is not persisted.
+ * <p>
+ * The file is memory mapped and only the header of each entry is read when the file is loaded.
+ * The metadata of a spec is decoded the first time it's requested.
+ */
+@OnlyIn(Dist.CLIENT)
+public class SpecMetadataCache
+{
+    private static final int MAGIC = 0x43464753;
+    // Must be increased whenever labels or words are derived differently
+    private static final int VERSION = 2;
+
+    private static final Map<String, String> LABELS = new ConcurrentHashMap<>();
+    private static final Map<String, Stored> STORED = new HashMap<>();
+    private static final Map<String, Session> SESSION = new LinkedHashMap<>();
+    private static boolean loaded;
+    private static boolean dirty;
+
+    /**
+     * Gets the metadata of the given spec, either from the cache file or by deriving it if the
+     * spec has changed since it was cached.
+     *
+     * @param fileName the file name of the config of the spec
+     * @param spec     the spec of the config
+     * @return the metadata of the spec
+     */
+    public static synchronized SpecMetadata get(String fileName, ForgeConfigSpec spec)
+    {
+        Session session = SESSION.get(fileName);
+        if(session != null && session.spec == spec)
+            return session.metadata;
+
+        if(!loaded)
+        {
+            loaded = true;
+            load();
+        }
+
+        List<Pair<ForgeConfigSpec.ConfigValue<?>, ForgeConfigSpec.ValueSpec>> values = ConfigHelper.gatherAllForgeConfigValues(spec.getValues(), spec);
+        long hash = hash(values);
+        SpecMetadata metadata = null;
+        Stored stored = STORED.get(fileName);
+        if(stored != null && stored.hash == hash)
+        {
+            try
+            {
+                metadata = decode(stored.data.duplicate());
+            }
+            catch(RuntimeException e)
+            {
+                Configured.LOGGER.warn("Discarding corrupt spec metadata of {}", fileName);
+                metadata = null;
+            }
+        }
+        if(metadata == null)
+        {
+            metadata = derive(values);
+            stored = new Stored(hash, ByteBuffer.wrap(encode(metadata)));
+            STORED.put(fileName, stored);
+            dirty = true;
+        }
+        LABELS.putAll(metadata.labels);
+        SESSION.put(fileName, new Session(spec, metadata));
+        return metadata;
+    }
+
+    /**
+     * Gets the label of a config name if it's known from the metadata of a spec. Labels are the
+     * same for every spec, since they only depend on the name.
+     *
+     * @param name the name of a config value or folder
+     * @return the label or null if the name has not been seen yet
+     */
+    @Nullable
+    public static String getLabel(String name)
+    {
+        return LABELS.get(name);
+    }
+
+    /**
+     * Writes the cache file if the metadata of any spec was derived in this session. Entries of
+     * configs that were not requested in this session, such as those of removed mods, are dropped.
+     */
+    public static synchronized void save()
+    {
+        if(!dirty && STORED.size() == SESSION.size())
+            return;
+        try
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(SESSION.size());
+            for(String fileName : SESSION.keySet())
+            {
+                Stored stored = STORED.get(fileName);
+                ByteBuffer data = stored.data.duplicate();
+                byte[] block = new byte[data.remaining()];
+                data.get(block);
+                writeString(out, fileName);
+                out.writeLong(stored.hash);
+                out.writeInt(block.length);
+                out.write(block);
+            }
+            out.flush();
+
+            // The current file may still be mapped, which prevents it from being replaced on some
+            // platforms. The temporary file is then moved into place on the next launch instead.
+            Path file = getFile();
+            Path temp = getTempFile();
+            Files.createDirectories(file.getParent());
+            Files.write(temp, bytes.toByteArray());
+            moveIntoPlace(temp, file);
+            STORED.keySet().retainAll(SESSION.keySet());
+            dirty = false;
+        }
+        catch(IOException e)
+        {
+            Configured.LOGGER.debug("Spec metadata cache will be written on a later launch", e);
+        }
+    }
+
+    private static void load()
+    {
+        Path file = getFile();
+        Path temp = getTempFile();
+        try
+        {
+            if(Files.exists(temp))
+            {
+                moveIntoPlace(temp, file);
+            }
+        }
+        catch(IOException e)
+        {
+            Configured.LOGGER.warn("Failed to replace spec metadata cache", e);
+        }
+
+        if(!Files.exists(file))
+            return;
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if(buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+                return;
+            int count = buffer.getInt();
+            for(int i = 0; i < count; i++)
+            {
+                String fileName = readString(buffer);
+                long hash = buffer.getLong();
+                int length = buffer.getInt();
+                ByteBuffer data = buffer.slice();
+                data.limit(length);
+                buffer.position(buffer.position() + length);
+                STORED.put(fileName, new Stored(hash, data));
+            }
+            Configured.LOGGER.info("Loaded spec metadata of {} config(s) from cache", count);
+        }
+        catch(IOException | RuntimeException e)
+        {
+            Configured.LOGGER.warn("Failed to load spec metadata cache, it will be rebuilt", e);
+            STORED.clear();
+        }
+    }
+
+    private static void moveIntoPlace(Path temp, Path file) throws IOException
+    {
+        try
+        {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch(AtomicMoveNotSupportedException e)
+        {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static Path getFile()
+    {
+        return FMLPaths.GAMEDIR.get().resolve(".cache").resolve("configured_spec_metadata.bin");
+    }
+
+    private static Path getTempFile()
+    {
+        return getFile().resolveSibling("configured_spec_metadata.bin.tmp");
+    }
+
+    /**
+     * Hashes the text the metadata is derived from, which is the path, comment and translation key
+     * of every value. These are strings the spec already holds, so nothing has to be converted to
+     * text. Ranges are part of the comment that Forge generates, so they don't need to be read.
+     */
+    private static long hash(List<Pair<ForgeConfigSpec.ConfigValue<?>, ForgeConfigSpec.ValueSpec>> values)
+    {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        hasher.putInt(values.size());
+        for(Pair<ForgeConfigSpec.ConfigValue<?>, ForgeConfigSpec.ValueSpec> pair : values)
+        {
+            ForgeConfigSpec.ValueSpec valueSpec = pair.getRight();
+            for(String name : pair.getLeft().getPath())
+            {
+                hasher.putUnencodedChars(name).putChar('.');
+            }
+            putNullable(hasher, valueSpec.getComment());
+            putNullable(hasher, valueSpec.getTranslationKey());
+        }
+        return hasher.hash().asLong();
+    }
+
+    private static void putNullable(Hasher hasher, @Nullable String text)
+    {
+        // The length is included, so the end of one string can't be mistaken for the start of the next
+        if(text != null)
+        {
+            hasher.putInt(text.length()).putUnencodedChars(text);
+        }
+        else
+        {
+            hasher.putInt(-1);
+        }
+    }
+
+    private static SpecMetadata derive(List<Pair<ForgeConfigSpec.ConfigValue<?>, ForgeConfigSpec.ValueSpec>> values)
+    {
+        SpecMetadata metadata = new SpecMetadata();
+        for(Pair<ForgeConfigSpec.ConfigValue<?>, ForgeConfigSpec.ValueSpec> pair : values)
+        {
+            ForgeConfigSpec.ValueSpec valueSpec = pair.getRight();
+            for(String name : pair.getLeft().getPath())
+            {
+                String label = metadata.labels.computeIfAbsent(name, ConfigScreen::createLabel);
+                metadata.addWords(name);
+                metadata.addWords(label);
+            }
+            metadata.addWords(valueSpec.getComment());
+            metadata.addWords(valueSpec.getTranslationKey());
+        }
+        return metadata;
+    }
+
+    private static byte[] encode(SpecMetadata metadata)
+    {
+        try
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(metadata.labels.size());
+            for(Map.Entry<String, String> entry : metadata.labels.entrySet())
+            {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue());
+            }
+            out.writeInt(metadata.words.size());
+            for(Map.Entry<String, String[]> entry : metadata.words.entrySet())
+            {
+                writeString(out, entry.getKey());
+                out.writeInt(entry.getValue().length);
+                for(String word : entry.getValue())
+                {
+                    writeString(out, word);
+                }
+            }
+            out.flush();
+            return bytes.toByteArray();
+        }
+        catch(IOException e)
+        {
+            // Writing to a byte array never fails
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SpecMetadata decode(ByteBuffer buffer)
+    {
+        SpecMetadata metadata = new SpecMetadata();
+        int labelCount = buffer.getInt();
+        for(int i = 0; i < labelCount; i++)
+        {
+            metadata.labels.put(readString(buffer), readString(buffer));
+        }
+        int wordsCount = buffer.getInt();
+        for(int i = 0; i < wordsCount; i++)
+        {
+            String text = readString(buffer);
+            String[] words = new String[buffer.getInt()];
+            for(int j = 0; j < words.length; j++)
+            {
+                words[j] = readString(buffer);
+            }
+            metadata.words.put(text, words);
+        }
+        return metadata;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException
+    {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer)
+    {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The metadata of a single spec
+     */
+    public static class SpecMetadata
+    {
+        private final Map<String, String> labels = new HashMap<>();
+        private final Map<String, String[]> words = new HashMap<>();
+
+        private void addWords(@Nullable String text)
+        {
+            if(text != null)
+            {
+                this.words.computeIfAbsent(text, GlobalSearchIndex::tokenize);
+            }
+        }
+
+        /**
+         * Gets the search words of a name, label, comment or translation key of the spec
+         *
+         * @param text the text to get the words of
+         * @return the words or null if the text is not part of the spec
+         */
+        @Nullable
+        public String[] getWords(String text)
+        {
+            return this.words.get(text);
+        }
+    }
+
+    private static class Stored
+    {
+        private final long hash;
+        private final ByteBuffer data;
+
+        private Stored(long hash, ByteBuffer data)
+        {
+            this.hash = hash;
+            this.data = data;
+        }
+    }
+
+    private static class Session
+    {
+        private final ForgeConfigSpec spec;
+        private final SpecMetadata metadata;
+
+        private Session(ForgeConfigSpec spec, SpecMetadata metadata)
+        {
+            this.spec = spec;
+            this.metadata = metadata;
+        }
+    }
+}
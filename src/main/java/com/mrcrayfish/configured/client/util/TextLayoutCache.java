@@ -0,0 +1,237 @@
+package com.mrcrayfish.configured.client.util;
+
+import net.minecraft.client.MainWindow;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.FontRenderer;
+import net.minecraft.util.IReorderingProcessor;
+import net.minecraft.util.text.IFormattableTextComponent;
+import net.minecraft.util.text.ITextComponent;
+import net.minecraft.util.text.ITextProperties;
+import net.minecraft.util.text.StringTextComponent;
+import net.minecraft.util.text.Style;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * A cache for the results of measuring text, such as wrapped tooltips and trimmed labels. Results
+ * are keyed by the maximum width and the styled content of the text, which includes the text and
+ * style of every sibling. The cache is cleared when
+ * the window size, gui scale or language changes, since the layout of text depends on them. Only
+ * accessed from the render thread.
+ */
+@OnlyIn(Dist.CLIENT)
+public class TextLayoutCache
+{
+    private static final int MAX_ENTRIES = 4096;
+
+    private static final Map<Key, ITextComponent> TRIMMED = new HashMap<>();
+    private static final Map<Key, List<IReorderingProcessor>> WRAPPED = new HashMap<>();
+
+    private static int lastWidth;
+    private static int lastHeight;
+    private static double lastScale;
+    private static String lastLanguage;
+    private static int generation;
+
+    /**
+     * Clears the cache if the window size, gui scale or language has changed since the last call.
+     * Screens using the cache should call this when they are initialised, which also happens when
+     * the window is resized.
+     */
+    public static void validate()
+    {
+        Minecraft minecraft = Minecraft.getInstance();
+        MainWindow window = minecraft.getMainWindow();
+        String language = minecraft.getLanguageManager().getCurrentLanguage().getCode();
+        if(window.getScaledWidth() != lastWidth || window.getScaledHeight() != lastHeight || window.getGuiScaleFactor() != lastScale || !language.equals(lastLanguage))
+        {
+            lastWidth = window.getScaledWidth();
+            lastHeight = window.getScaledHeight();
+            lastScale = window.getGuiScaleFactor();
+            lastLanguage = language;
+            clear();
+        }
+    }
+
+    /**
+     * Clears all cached layouts
+     */
+    public static void clear()
+    {
+        TRIMMED.clear();
+        WRAPPED.clear();
+        generation++;
+    }
+
+    /**
+     * Trims the given text to fit within the maximum width. If the text is trimmed, an ellipsis is
+     * appended to the end of it.
+     *
+     * @param text     the text to trim
+     * @param maxWidth the maximum width of the text
+     * @return the text if it fits, otherwise a trimmed copy of the text
+     */
+    public static ITextComponent trim(ITextComponent text, int maxWidth)
+    {
+        Key key = new Key(getContent(text), maxWidth);
+        ITextComponent trimmed = TRIMMED.get(key);
+        if(trimmed == null)
+        {
+            FontRenderer font = Minecraft.getInstance().fontRenderer;
+            trimmed = text;
+            if(font.getStringPropertyWidth(text) > maxWidth)
+            {
+                trimmed = toComponent(font.func_238417_a_(text, maxWidth));
+            }
+            put(TRIMMED, key, trimmed);
+        }
+        return trimmed;
+    }
+
+    /**
+     * Wraps the given text into lines that fit within the maximum width.
+     *
+     * @param text     the text to wrap
+     * @param maxWidth the maximum width of a line
+     * @return the wrapped lines of the text
+     */
+    public static List<IReorderingProcessor> wrap(ITextComponent text, int maxWidth)
+    {
+        return wrap(new Key(getContent(text), maxWidth), () -> Minecraft.getInstance().fontRenderer.trimStringToWidth(text, maxWidth));
+    }
+
+    /**
+     * Gets the cached lines for the given text, otherwise creates them using the given supplier.
+     * This allows screens to cache tooltips that are built with custom formatting, as long as the
+     * text uniquely identifies the result of the supplier.
+     *
+     * @param text     the text that is being wrapped
+     * @param maxWidth the maximum width of a line
+     * @param style    the base style of the text
+     * @param factory  a supplier that creates the lines if they are not cached
+     * @return the wrapped lines of the text
+     */
+    public static List<IReorderingProcessor> wrap(String text, int maxWidth, Style style, Supplier<List<IReorderingProcessor>> factory)
+    {
+        return wrap(new Key(Arrays.asList(style, text), maxWidth), factory);
+    }
+
+    private static List<IReorderingProcessor> wrap(Key key, Supplier<List<IReorderingProcessor>> factory)
+    {
+        List<IReorderingProcessor> lines = WRAPPED.get(key);
+        if(lines == null)
+        {
+            lines = factory.get();
+            put(WRAPPED, key, lines);
+        }
+        return lines;
+    }
+
+    /**
+     * Flattens the given text into its strings and their styles, in the order they are rendered
+     */
+    private static List<Object> getContent(ITextProperties text)
+    {
+        List<Object> content = new ArrayList<>();
+        text.getComponentWithStyle((style, string) ->
+        {
+            content.add(style);
+            content.add(string);
+            return Optional.empty();
+        }, Style.EMPTY);
+        return content;
+    }
+
+    /**
+     * Creates a component from trimmed text with an ellipsis appended. Every part keeps its own
+     * style, and the ellipsis uses the style of the last part.
+     */
+    private static ITextComponent toComponent(ITextProperties trimmed)
+    {
+        IFormattableTextComponent component = new StringTextComponent("");
+        Style[] lastStyle = {Style.EMPTY};
+        trimmed.getComponentWithStyle((style, string) ->
+        {
+            component.append(new StringTextComponent(string).setStyle(style));
+            lastStyle[0] = style;
+            return Optional.empty();
+        }, Style.EMPTY);
+        return component.append(new StringTextComponent("...").setStyle(lastStyle[0]));
+    }
+
+    private static <T> void put(Map<Key, T> map, Key key, T value)
+    {
+        // Keeps the cache from growing without bounds when browsing many large configs
+        if(map.size() >= MAX_ENTRIES)
+        {
+            map.clear();
+        }
+        map.put(key, value);
+    }
+
+    /**
+     * The wrapped lines of a single text that is rendered every frame, such as the tooltip of a
+     * button. The lines are kept until the cache is cleared or the maximum width changes, so
+     * rendering doesn't need to look them up or allocate anything.
+     */
+    public static class WrappedText
+    {
+        private final ITextComponent text;
+        private List<IReorderingProcessor> lines;
+        private int maxWidth;
+        private int generation;
+
+        public WrappedText(ITextComponent text)
+        {
+            this.text = text;
+        }
+
+        public List<IReorderingProcessor> get(int maxWidth)
+        {
+            if(this.lines == null || this.maxWidth != maxWidth || this.generation != TextLayoutCache.generation)
+            {
+                this.lines = wrap(this.text, maxWidth);
+                this.maxWidth = maxWidth;
+                this.generation = TextLayoutCache.generation;
+            }
+            return this.lines;
+        }
+    }
+
+    private static class Key
+    {
+        private final List<Object> content;
+        private final int maxWidth;
+        private final int hash;
+
+        private Key(List<Object> content, int maxWidth)
+        {
+            this.content = content;
+            this.maxWidth = maxWidth;
+            this.hash = 31 * content.hashCode() + maxWidth;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if(this == o) return true;
+            if(!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return this.maxWidth == other.maxWidth && this.content.equals(other.content);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return this.hash;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.mrcrayfish.configured.client.util;
+
+import com.google.common.hash.Hashing;
+import com.mrcrayfish.configured.Reference;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.texture.DynamicTexture;
+import net.minecraft.client.renderer.texture.NativeImage;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.Util;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A size bounded cache of world icon textures, shared between world selection screens. Icons are
+ * read and decoded on a worker thread, then uploaded on the render thread in small batches. The
+ * least recently used icons are deleted once the cache is full. Icons are validated against the
+ * last modified time of the icon file, at most once every time a screen is opened.
+ */
+@OnlyIn(Dist.CLIENT)
+public class WorldIconCache
+{
+    private static final int MAX_ICONS = 64;
+    private static final int MAX_UPLOADS_PER_FRAME = 4;
+
+    private static final Map<String, Icon> ICONS = new LinkedHashMap<String, Icon>(16, 0.75F, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Icon> eldest)
+        {
+            if(this.size() > MAX_ICONS)
+            {
+                eldest.getValue().release();
+                return true;
+            }
+            return false;
+        }
+    };
+    private static final Queue<Upload> UPLOADS = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Gets the texture location of the icon of the given world. If the icon has not been loaded or
+     * may be outdated, it will be loaded in the background and this method will return the last
+     * known icon until it is ready.
+     *
+     * @param folderName the folder name of the world
+     * @param iconFile   the icon file of the world
+     * @return the location of the icon texture or null if the world has no icon (yet)
+     */
+    @Nullable
+    public static ResourceLocation getIcon(String folderName, File iconFile)
+    {
+        Icon icon = ICONS.get(folderName);
+        if(icon == null)
+        {
+            icon = new Icon(folderName);
+            ICONS.put(folderName, icon);
+        }
+        if(!icon.validated)
+        {
+            icon.validated = true;
+            icon.load(iconFile);
+        }
+        return icon.texture != null ? icon.id : null;
+    }
+
+    /**
+     * Marks all icons as possibly outdated, so they are checked against their icon file the next
+     * time they are requested.
+     */
+    public static void invalidate()
+    {
+        ICONS.values().forEach(icon -> icon.validated = false);
+    }
+
+    /**
+     * Uploads icons that have finished decoding. Must be called from the render thread.
+     */
+    public static void processUploads()
+    {
+        for(int i = 0; i < MAX_UPLOADS_PER_FRAME; i++)
+        {
+            Upload upload = UPLOADS.poll();
+            if(upload == null)
+                break;
+            upload.icon.apply(upload.modified, upload.image);
+        }
+    }
+
+    @Nullable
+    private static NativeImage decode(File iconFile)
+    {
+        try(InputStream is = new FileInputStream(iconFile))
+        {
+            NativeImage image = NativeImage.read(is);
+            if(image.getWidth() != 64 || image.getHeight() != 64)
+            {
+                image.close();
+                return null;
+            }
+            return image;
+        }
+        catch(IOException ignored) {}
+        return null;
+    }
+
+    private static class Icon
+    {
+        private final ResourceLocation id;
+        private DynamicTexture texture;
+        private long modified = -1;
+        private boolean validated;
+        private boolean released;
+
+        private Icon(String folderName)
+        {
+            // Uses a separate namespace from the vanilla world list, which closes its textures when it is closed
+            this.id = new ResourceLocation(Reference.MOD_ID, "worlds/" + Util.func_244361_a(folderName, ResourceLocation::validatePathChar) + "/" + Hashing.sha1().hashUnencodedChars(folderName) + "/icon");
+        }
+
+        private void load(File iconFile)
+        {
+            long knownModified = this.modified;
+            Util.getServerExecutor().execute(() ->
+            {
+                long modified = iconFile.isFile() ? iconFile.lastModified() : 0L;
+                if(modified == knownModified)
+                    return;
+                NativeImage image = modified != 0L ? decode(iconFile) : null;
+                UPLOADS.add(new Upload(this, modified, image));
+            });
+        }
+
+        private void apply(long modified, @Nullable NativeImage image)
+        {
+            if(this.released)
+            {
+                if(image != null) image.close();
+                return;
+            }
+            this.modified = modified;
+            if(image != null)
+            {
+                // Loading a texture under the same location closes the previous texture
+                this.texture = new DynamicTexture(image);
+                Minecraft.getInstance().getTextureManager().loadTexture(this.id, this.texture);
+            }
+            else if(this.texture != null)
+            {
+                Minecraft.getInstance().getTextureManager().deleteTexture(this.id);
+                this.texture = null;
+            }
+        }
+
+        private void release()
+        {
+            this.released = true;
+            if(this.texture != null)
+            {
+                Minecraft.getInstance().getTextureManager().deleteTexture(this.id);
+                this.texture = null;
+            }
+        }
+    }
+
+    private static class Upload
+    {
+        private final Icon icon;
+        private final long modified;
+        private final NativeImage image;
+
+        private Upload(Icon icon, long modified, @Nullable NativeImage image)
+        {
+            this.icon = icon;
+            this.modified = modified;
+            this.image = image;
+        }
+    }
+}
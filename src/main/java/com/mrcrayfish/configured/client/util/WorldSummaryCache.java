@@ -0,0 +1,106 @@
+package com.mrcrayfish.configured.client.util;
+
+import com.google.common.collect.ImmutableList;
+import com.mrcrayfish.configured.Configured;
+import net.minecraft.client.AnvilConverterException;
+import net.minecraft.client.Minecraft;
+import net.minecraft.util.Util;
+import net.minecraft.world.storage.WorldSummary;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Caches the summaries of the worlds in the saves folder. Reading the save list parses the level
+ * data of every world, which is slow with many worlds. The cached summaries are validated against
+ * the last modified time of the level data of each world, and are only read again if a world has
+ * been added, removed or changed.
+ */
+@OnlyIn(Dist.CLIENT)
+public class WorldSummaryCache
+{
+    private static final Object LOCK = new Object();
+
+    private static volatile List<WorldSummary> summaries;
+    private static volatile Map<String, Long> timestamps = Collections.emptyMap();
+    private static CompletableFuture<List<WorldSummary>> pending;
+
+    /**
+     * Gets the last loaded world summaries. These may be outdated, use {@link #load()} to get
+     * summaries that are validated against the saves folder.
+     *
+     * @return the last loaded summaries or null if they have not been loaded yet
+     */
+    @Nullable
+    public static List<WorldSummary> getCached()
+    {
+        return summaries;
+    }
+
+    /**
+     * Loads the world summaries on a worker thread. If the cached summaries are still valid, they
+     * are returned instead of reading the save list again. Calling this while a load is already in
+     * progress will return the same future.
+     *
+     * @return a future that completes with a sorted list of world summaries
+     */
+    public static CompletableFuture<List<WorldSummary>> load()
+    {
+        synchronized(LOCK)
+        {
+            if(pending == null || pending.isDone())
+            {
+                pending = CompletableFuture.supplyAsync(WorldSummaryCache::loadSummaries, Util.getServerExecutor());
+            }
+            return pending;
+        }
+    }
+
+    private static List<WorldSummary> loadSummaries()
+    {
+        Minecraft minecraft = Minecraft.getInstance();
+        Map<String, Long> currentTimestamps = readTimestamps(new File(minecraft.gameDir, "saves"));
+        List<WorldSummary> cached = summaries;
+        if(cached != null && currentTimestamps.equals(timestamps))
+        {
+            return cached;
+        }
+        try
+        {
+            List<WorldSummary> saveList = new ArrayList<>(minecraft.getSaveLoader().getSaveList());
+            Collections.sort(saveList);
+            List<WorldSummary> loaded = ImmutableList.copyOf(saveList);
+            timestamps = currentTimestamps;
+            summaries = loaded;
+            return loaded;
+        }
+        catch(AnvilConverterException e)
+        {
+            Configured.LOGGER.error("Failed to load the world list", e);
+            throw new CompletionException(e);
+        }
+    }
+
+    private static Map<String, Long> readTimestamps(File savesDir)
+    {
+        Map<String, Long> timestamps = new HashMap<>();
+        File[] files = savesDir.listFiles(File::isDirectory);
+        if(files != null)
+        {
+            for(File file : files)
+            {
+                timestamps.put(file.getName(), new File(file, "level.dat").lastModified());
+            }
+        }
+        return timestamps;
+    }
+}
@@ -0,0 +1,121 @@
+package com.mrcrayfish.configured.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.DynamicCommandExceptionType;
+import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
+import com.mrcrayfish.configured.util.BatchConfigEditor;
+import com.mrcrayfish.configured.util.ConfigHelper;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.command.ISuggestionProvider;
+import net.minecraft.util.text.StringTextComponent;
+import net.minecraft.util.text.TextFormatting;
+import net.minecraftforge.common.ForgeConfigSpec;
+import net.minecraftforge.fml.config.ModConfig;
+import net.minecraftforge.fml.loading.FMLPaths;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A command to apply the same changes to a server config of every world, for example
+ * <pre>/configured batchedit examplemod-server.toml general.maxEntities=10 general.name="Some name"</pre>
+ * On a dedicated server the worlds are searched in the server directory, otherwise in the saves
+ * directory. Messages are not translated, since clients may not have Configured installed.
+ * <p>
+ * The command requires permission level 4. Outside of a world, the config of one world can be
+ * copied to every other world from the world selection of the config screen.
+ */
+public class BatchEditCommand
+{
+    private static final DynamicCommandExceptionType UNKNOWN_CONFIG = new DynamicCommandExceptionType(name -> new StringTextComponent("Unknown server config: " + name));
+    private static final SimpleCommandExceptionType EXPECTED_EQUALS = new SimpleCommandExceptionType(new StringTextComponent("Expected edits in the form of path=value"));
+
+    public static void register(CommandDispatcher<CommandSource> dispatcher)
+    {
+        dispatcher.register(Commands.literal("configured").requires(source -> source.hasPermissionLevel(4))
+            .then(Commands.literal("batchedit")
+                .then(Commands.argument("file", StringArgumentType.string())
+                    .suggests((context, builder) -> ISuggestionProvider.suggest(ConfigHelper.getModConfigs().stream().filter(config -> config.getType() == ModConfig.Type.SERVER).map(ModConfig::getFileName), builder))
+                    .then(Commands.argument("edits", StringArgumentType.greedyString())
+                        .executes(context -> execute(context.getSource(), StringArgumentType.getString(context, "file"), StringArgumentType.getString(context, "edits")))))));
+    }
+
+    private static int execute(CommandSource source, String fileName, String editsText) throws CommandSyntaxException
+    {
+        ModConfig config = ConfigHelper.getModConfig(fileName);
+        if(config == null || config.getType() != ModConfig.Type.SERVER || !(config.getSpec() instanceof ForgeConfigSpec))
+        {
+            throw UNKNOWN_CONFIG.create(fileName);
+        }
+
+        Map<List<String>, Object> edits;
+        try
+        {
+            edits = BatchConfigEditor.parseEdits((ForgeConfigSpec) config.getSpec(), parseEdits(editsText));
+        }
+        catch(IllegalArgumentException e)
+        {
+            throw new SimpleCommandExceptionType(new StringTextComponent(e.getMessage())).create();
+        }
+
+        Path directory = source.getServer().isDedicatedServer() ? FMLPaths.GAMEDIR.get() : FMLPaths.GAMEDIR.get().resolve("saves");
+        List<Path> worlds;
+        try
+        {
+            worlds = BatchConfigEditor.findWorlds(directory);
+        }
+        catch(IOException e)
+        {
+            throw new SimpleCommandExceptionType(new StringTextComponent("Failed to find worlds: " + e.getMessage())).create();
+        }
+
+        source.sendFeedback(new StringTextComponent("Applying " + edits.size() + " edit(s) to " + fileName + " of " + worlds.size() + " world(s)"), true);
+        BatchConfigEditor.apply(config, edits, worlds).thenAccept(results -> source.getServer().execute(() ->
+        {
+            int failed = 0;
+            for(BatchConfigEditor.Result result : results)
+            {
+                boolean isFailure = result.getStatus() == BatchConfigEditor.Status.FAILED;
+                source.sendFeedback(new StringTextComponent(result.toString()).mergeStyle(isFailure ? TextFormatting.RED : TextFormatting.GRAY), false);
+                if(isFailure) failed++;
+            }
+            source.sendFeedback(new StringTextComponent("Finished editing " + results.size() + " world(s), " + failed + " failed"), true);
+        }));
+        return worlds.size();
+    }
+
+    /**
+     * Parses edits separated by spaces. Values can be quoted if they contain spaces or characters
+     * that are not allowed in unquoted strings, such as the brackets of a list.
+     */
+    private static Map<String, String> parseEdits(String text) throws CommandSyntaxException
+    {
+        Map<String, String> edits = new LinkedHashMap<>();
+        StringReader reader = new StringReader(text);
+        reader.skipWhitespace();
+        while(reader.canRead())
+        {
+            int start = reader.getCursor();
+            while(reader.canRead() && reader.peek() != '=' && reader.peek() != ' ')
+            {
+                reader.skip();
+            }
+            String path = reader.getString().substring(start, reader.getCursor());
+            if(path.isEmpty() || !reader.canRead() || reader.peek() != '=')
+            {
+                throw EXPECTED_EQUALS.createWithContext(reader);
+            }
+            reader.skip();
+            edits.put(path, reader.readString());
+            reader.skipWhitespace();
+        }
+        return edits;
+    }
+}
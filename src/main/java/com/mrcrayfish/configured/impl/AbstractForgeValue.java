@@ -0,0 +1,192 @@
+package com.mrcrayfish.configured.impl;
+
+import com.mrcrayfish.configured.api.IConfigValue;
+import com.mrcrayfish.configured.api.IValueListener;
+import net.minecraftforge.common.ForgeConfigSpec;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The state shared by all values of a Forge config tree. How the value itself is stored is left to
+ * the subclasses, so values of primitive types don't have to keep a boxed copy of their value.
+ */
+public abstract class AbstractForgeValue<T> implements IConfigValue<T>
+{
+    public final ForgeConfigSpec.ConfigValue<T> configValue;
+    public final ForgeConfigSpec.ValueSpec valueSpec;
+    @Nullable
+    private final Set<AbstractForgeValue<?>> changeSet;
+    private List<IValueListener> listeners = Collections.emptyList();
+    private boolean isDefault;
+    private boolean isChanged;
+
+    /**
+     * The value is not set by this constructor, subclasses are expected to set it once they are
+     * initialised.
+     *
+     * @param changeSet a set shared by all values of a config tree. This value adds itself to the
+     *                  set while it differs from its initial value, which allows the config to
+     *                  save only the values that were edited.
+     */
+    protected AbstractForgeValue(ForgeConfigSpec.ConfigValue<T> configValue, ForgeConfigSpec.ValueSpec valueSpec, @Nullable Set<AbstractForgeValue<?>> changeSet)
+    {
+        this.configValue = configValue;
+        this.valueSpec = valueSpec;
+        this.changeSet = changeSet;
+    }
+
+    /**
+     * Replaces the initial value after the config was changed outside of this value, such as the
+     * config file being edited. The current value is only replaced if it has not been changed, so
+     * unsaved edits are kept but are now compared to the new initial value.
+     *
+     * @param value the new initial value
+     */
+    public abstract void reload(T value);
+
+    /**
+     * @return the value at the time this value was created
+     */
+    public abstract T getInitialValue();
+
+    /**
+     * @return the fingerprint of the current value
+     * @see com.mrcrayfish.configured.util.Fingerprint
+     */
+    public abstract long getFingerprint();
+
+    /**
+     * @return the fingerprint of the initial value, which can be compared with the fingerprint of
+     *         a value read from the config file to quickly detect values that have changed
+     */
+    public abstract long getInitialFingerprint();
+
+    /**
+     * Updates the default and changed state after the value has been set, and notifies the
+     * listeners of this value.
+     *
+     * @param isDefault if the new value is the default value
+     * @param isChanged if the new value is different from the initial value
+     */
+    protected final void updateState(boolean isDefault, boolean isChanged)
+    {
+        boolean wasDefault = this.isDefault;
+        boolean wasChanged = this.isChanged;
+        this.isDefault = isDefault;
+        this.isChanged = isChanged;
+        this.updateChangeSet();
+        for(IValueListener listener : this.listeners)
+        {
+            listener.onValueChanged(this, wasDefault, wasChanged);
+        }
+    }
+
+    @Override
+    public void addListener(IValueListener listener)
+    {
+        if(this.listeners.isEmpty())
+        {
+            this.listeners = new ArrayList<>(1);
+        }
+        this.listeners.add(listener);
+    }
+
+    private void updateChangeSet()
+    {
+        if(this.changeSet != null)
+        {
+            if(this.isChanged())
+            {
+                this.changeSet.add(this);
+            }
+            else
+            {
+                this.changeSet.remove(this);
+            }
+        }
+    }
+
+    /**
+     * @return the current value in the form it should be written to the config data
+     */
+    public Object getSaveValue()
+    {
+        return this.get();
+    }
+
+    @Override
+    public boolean isDefault()
+    {
+        return this.isDefault;
+    }
+
+    @Override
+    public boolean isChanged()
+    {
+        return this.isChanged;
+    }
+
+    @Override
+    public void restore()
+    {
+        this.set(this.getDefault());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getDefault()
+    {
+        return (T) this.valueSpec.getDefault();
+    }
+
+    @Override
+    public boolean isValid(T value)
+    {
+        return this.valueSpec.test(value);
+    }
+
+    @Override
+    public String getComment()
+    {
+        return this.valueSpec.getComment();
+    }
+
+    @Override
+    public String getTranslationKey()
+    {
+        return this.valueSpec.getTranslationKey();
+    }
+
+    @Override
+    public String getPath()
+    {
+        return lastValue(this.configValue.getPath(), "");
+    }
+
+    @Override
+    public void cleanCache()
+    {
+        this.configValue.clearCache();
+    }
+
+    /**
+     * Gets the last element in a list
+     *
+     * @param list         the list of get the value from
+     * @param defaultValue if the list is empty, return this value instead
+     * @param <V>          the type of list
+     * @return the last element
+     */
+    public static <V> V lastValue(List<V> list, V defaultValue)
+    {
+        if(list.size() > 0)
+        {
+            return list.get(list.size() - 1);
+        }
+        return defaultValue;
+    }
+}
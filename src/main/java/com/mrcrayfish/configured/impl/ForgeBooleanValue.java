@@ -0,0 +1,83 @@
+package com.mrcrayfish.configured.impl;
+
+import com.mrcrayfish.configured.api.IPrimitiveConfigValue;
+import com.mrcrayfish.configured.util.Fingerprint;
+import net.minecraftforge.common.ForgeConfigSpec;
+
+import javax.annotation.Nullable;
+import java.util.Set;
+
+/**
+ * A {@link AbstractForgeValue} that stores a boolean value without boxing.
+ */
+public class ForgeBooleanValue extends AbstractForgeValue<Boolean> implements IPrimitiveConfigValue.OfBoolean
+{
+    private boolean initialValue;
+    private final boolean defaultValue;
+    private boolean booleanValue;
+
+    public ForgeBooleanValue(ForgeConfigSpec.ConfigValue<Boolean> configValue, ForgeConfigSpec.ValueSpec valueSpec, @Nullable Set<AbstractForgeValue<?>> changeSet)
+    {
+        super(configValue, valueSpec, changeSet);
+        this.initialValue = configValue.get();
+        this.defaultValue = (Boolean) valueSpec.getDefault();
+        this.setBoolean(this.initialValue);
+    }
+
+    @Override
+    public boolean getBoolean()
+    {
+        return this.booleanValue;
+    }
+
+    @Override
+    public void setBoolean(boolean value)
+    {
+        this.booleanValue = value;
+        this.updateState(value == this.defaultValue, value != this.initialValue);
+    }
+
+    @Override
+    public Boolean get()
+    {
+        return this.booleanValue;
+    }
+
+    @Override
+    public void set(Boolean value)
+    {
+        this.setBoolean(value);
+    }
+
+    @Override
+    public void restore()
+    {
+        this.setBoolean(this.defaultValue);
+    }
+
+    @Override
+    public long getFingerprint()
+    {
+        return Fingerprint.ofBoolean(this.booleanValue);
+    }
+
+    @Override
+    public long getInitialFingerprint()
+    {
+        return Fingerprint.ofBoolean(this.initialValue);
+    }
+
+    @Override
+    public void reload(Boolean value)
+    {
+        boolean edited = this.isChanged();
+        this.initialValue = value;
+        this.setBoolean(edited ? this.booleanValue : value);
+    }
+
+    @Override
+    public Boolean getInitialValue()
+    {
+        return this.initialValue;
+    }
+}
@@ -1,27 +1,66 @@
 package com.mrcrayfish.configured.impl;
 
 import com.electronwill.nightconfig.core.CommentedConfig;
+import com.electronwill.nightconfig.core.ConfigFormat;
+import com.electronwill.nightconfig.core.UnmodifiableConfig;
 import com.electronwill.nightconfig.core.file.CommentedFileConfig;
+import com.electronwill.nightconfig.core.file.FileConfig;
+import com.electronwill.nightconfig.core.file.FileNotFoundAction;
 import com.mrcrayfish.configured.Configured;
+import com.mrcrayfish.configured.api.ConfigChange;
+import com.mrcrayfish.configured.api.ConfigSnapshots;
 import com.mrcrayfish.configured.api.IConfigEntry;
 import com.mrcrayfish.configured.api.IConfigValue;
 import com.mrcrayfish.configured.api.IModConfig;
 import com.mrcrayfish.configured.client.screen.ListMenuScreen;
+import com.mrcrayfish.configured.util.ConfigChangeDispatcher;
+import com.mrcrayfish.configured.util.ConfigFileWatcher;
 import com.mrcrayfish.configured.util.ConfigHelper;
+import com.mrcrayfish.configured.util.ConfigWriter;
+import com.mrcrayfish.configured.util.PerformanceMetrics;
+import net.minecraft.util.Util;
 import net.minecraftforge.common.ForgeConfigSpec;
 import net.minecraftforge.fml.config.ModConfig;
 import net.minecraftforge.fml.config.ModConfig.Type;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
-import java.util.function.Function;
 
 public class ForgeConfig implements IModConfig
 {
+    /**
+     * Trees that are only used to check if a config is modified, so the check is only expensive
+     * the first time. A tree is dropped whenever its config is saved or reloaded.
+     */
+    private static final Map<ModConfig, ForgeFolderEntry> STATE_ROOTS = new ConcurrentHashMap<>();
+    private static final Set<ModConfig> LISTENING = ConcurrentHashMap.newKeySet();
+
+    static
+    {
+        ConfigHelper.addReloadListener(config ->
+        {
+            if(config instanceof ForgeConfig)
+            {
+                STATE_ROOTS.remove(((ForgeConfig) config).config);
+            }
+        });
+    }
+
     ModConfig config;
     protected final ForgeConfigSpec spec;
 
@@ -29,13 +68,66 @@ public class ForgeConfig implements IModConfig
     {
         this.config = config;
         this.spec = spec;
-        ConfigHelper.gatherAllForgeConfigValues(spec.getValues(), spec);
     }
 
     @Override
     public void saveConfig(IConfigEntry entry)
     {
-        CommentedConfig newConfig = CommentedConfig.copy(this.config.getConfigData());
+        // Only the changed values are written, so the cost of saving depends on the amount of edits.
+        // The change set covers the whole tree, so it can only be used when saving from the root.
+        Collection<AbstractForgeValue<?>> changedValues = entry instanceof ForgeFolderEntry && entry.isRoot() ? ((ForgeFolderEntry) entry).getChangedValues() : gatherChangedValues(entry);
+        List<ConfigChange> events = null;
+        if(!changedValues.isEmpty())
+        {
+            long start = PerformanceMetrics.start();
+            Map<List<String>, Object> changes = new LinkedHashMap<>();
+            List<ConfigChange> changeEvents = new ArrayList<>(changedValues.size());
+            changedValues.forEach(value ->
+            {
+                changes.put(value.configValue.getPath(), value.getSaveValue());
+                changeEvents.add(new ConfigChange(this.config.getFileName(), value.configValue.getPath(), value.getInitialValue(), value.get()));
+            });
+            PerformanceMetrics.stop(PerformanceMetrics.Timer.SAVE_COPY, start, this.config.getFileName());
+
+            start = PerformanceMetrics.start();
+            ConfigHelper.saveChanges(this.config, changes);
+            PerformanceMetrics.stop(PerformanceMetrics.Timer.SAVE_APPLY, start, this.config.getFileName());
+            events = changeEvents;
+        }
+        boolean unloaded = false;
+        if(this.getConfigType() == Type.SERVER && !ListMenuScreen.isPlayingGame())
+        {
+            // Unload server configs since still in main menu
+            this.config.getHandler().unload(this.config.getFullPath().getParent(), this.config);
+            ConfigHelper.setConfigData(this.config, null);
+            unloaded = true;
+        }
+
+        long start = PerformanceMetrics.start();
+        if(events != null)
+        {
+            ConfigChangeDispatcher.post(this.config.getFileName(), events);
+        }
+        if(!unloaded)
+        {
+            // The file is replaced by the writer, which the file watcher of Forge doesn't notice, so
+            // the reloading event is always sent here. This also publishes the snapshots of the config.
+            Configured.LOGGER.info("Sending config reloading event for {}", this.config.getFileName());
+            this.spec.afterReload();
+            ConfigHelper.fireEvent(this.config, ConfigHelper.reloadingEvent(this.config));
+        }
+        ConfigHelper.notifyReload(this);
+        PerformanceMetrics.stop(PerformanceMetrics.Timer.RELOAD_DISPATCH, start, this.config.getFileName());
+    }
+
+    /**
+     * Searches the given entry and its children for changed values. Only used if the entry is not
+     * the root of a tree created by this config, since {@link ForgeFolderEntry} already tracks the
+     * changes of the whole tree.
+     */
+    private static List<AbstractForgeValue<?>> gatherChangedValues(IConfigEntry entry)
+    {
+        List<AbstractForgeValue<?>> values = new ArrayList<>();
         Queue<IConfigEntry> found = new ArrayDeque<>();
         found.add(entry);
         while(!found.isEmpty())
@@ -47,39 +139,22 @@ public class ForgeConfig implements IModConfig
                 continue;
             }
             IConfigValue<?> value = toSave.getValue();
-            if(value == null || !value.isChanged()) continue;
-            if(value instanceof ForgeValue)
+            if(value instanceof AbstractForgeValue && value.isChanged())
             {
-                ForgeValue<?> forge = (ForgeValue<?>) value;
-                if(forge instanceof ForgeListValue)
-                {
-                    ForgeListValue forgeList = (ForgeListValue) value;
-                    Function<List<?>, List<?>> converter = forgeList.getConverter();
-                    if(converter != null)
-                    {
-                        newConfig.set(forge.configValue.getPath(), converter.apply(forgeList.get()));
-                        continue;
-                    }
-                }
-                newConfig.set(forge.configValue.getPath(), value.get());
+                values.add((AbstractForgeValue<?>) value);
             }
         }
-        this.config.getConfigData().putAll(newConfig);
-        if(this.getConfigType() == Type.SERVER)
-        {
-            if(!ListMenuScreen.isPlayingGame())
-            {
-                // Unload server configs since still in main menu
-                this.config.getHandler().unload(this.config.getFullPath().getParent(), this.config);
-                ConfigHelper.setConfigData(this.config, null);
-            }
-        }
-        else
-        {
-            Configured.LOGGER.info("Sending config reloading event for {}", this.config.getFileName());
-            this.spec.afterReload();
-            ConfigHelper.fireEvent(this.config, ConfigHelper.reloadingEvent(this.config));
-        }
+        return values;
+    }
+
+    public ForgeConfigSpec getSpec()
+    {
+        return this.spec;
+    }
+
+    public ModConfig getModConfig()
+    {
+        return this.config;
     }
 
     @Override
@@ -88,6 +163,21 @@ public class ForgeConfig implements IModConfig
         return new ForgeFolderEntry("Root", this.config.getSpec().getValues(), this.spec, true);
     }
 
+    /**
+     * The tree is kept until the config is saved or reloaded, either by Configured or by Forge. The
+     * tree keeps count of its modified values, so only the first check has to visit every value.
+     */
+    @Override
+    public boolean isModified()
+    {
+        ModConfig config = this.config;
+        if(LISTENING.add(config))
+        {
+            ConfigHelper.addConfigEventListener(config, event -> STATE_ROOTS.remove(config));
+        }
+        return STATE_ROOTS.computeIfAbsent(config, c -> (ForgeFolderEntry) this.getRoot()).isModified();
+    }
+
     @Override
     public Type getConfigType()
     {
@@ -109,9 +199,128 @@ public class ForgeConfig implements IModConfig
     @Override
     public void loadServerConfig(Path path, Consumer<IModConfig> result) throws IOException
     {
+        ConfigWriter.flush(path.resolve(this.config.getFileName()));
         final CommentedFileConfig data = this.config.getHandler().reader(path).apply(this.config);
-        ConfigHelper.setConfigData(this.config, data);
+        // The reader already corrects and saves the file, so the data doesn't need to be written again
+        ConfigHelper.setConfigData(this.config, data, false);
+        ConfigSnapshots.publish(this.config);
+        ConfigHelper.notifyReload(this);
         result.accept(this);
     }
 
+    @Override
+    public CompletableFuture<IModConfig> loadServerConfigAsync(Path path, Executor mainExecutor, Runnable onFinished)
+    {
+        // Reading and parsing the file is done on a worker, only setting the data is done on the main thread
+        CompletableFuture<IModConfig> result = new CompletableFuture<>();
+        CompletableFuture.supplyAsync(() ->
+        {
+            ConfigWriter.flush(path.resolve(this.config.getFileName()));
+            return this.config.getHandler().reader(path).apply(this.config);
+        }, Util.getServerExecutor()).whenCompleteAsync((data, throwable) ->
+        {
+            // Finished is tied to this stage rather than the result, since the result can be cancelled while the worker is still reading
+            try
+            {
+                if(throwable != null)
+                {
+                    result.completeExceptionally(throwable);
+                    return;
+                }
+                if(result.isCancelled())
+                {
+                    // The reader starts watching the file, which needs to be undone since the data is discarded
+                    this.config.getHandler().unload(path, this.config);
+                    data.close();
+                    return;
+                }
+                ConfigHelper.setConfigData(this.config, data, false);
+                ConfigSnapshots.publish(this.config);
+                ConfigHelper.notifyReload(this);
+                result.complete(this);
+            }
+            finally
+            {
+                onFinished.run();
+            }
+        }, mainExecutor);
+        return result;
+    }
+
+    /**
+     * Watches the config file and applies a key level diff of the file to the tree. Changes made
+     * while the tree was not watched, such as while an edit screen was open, are caught up with
+     * when watching starts again.
+     */
+    @Override
+    @Nullable
+    public Runnable watchChanges(IConfigEntry entry, Executor mainExecutor, Consumer<Set<IConfigValue<?>>> listener)
+    {
+        CommentedConfig data = this.config.getConfigData();
+        if(!(entry instanceof ForgeFolderEntry) || !(data instanceof FileConfig))
+            return null;
+        ForgeFolderEntry root = ((ForgeFolderEntry) entry).getRootEntry();
+        Path file = ((FileConfig) data).getNioPath();
+        ConfigFormat<?> format = ((FileConfig) data).configFormat();
+        // A reload can already be queued on the main thread when watching stops, it must not update the tree after that
+        AtomicBoolean watching = new AtomicBoolean(true);
+        Runnable onFileChanged = () -> this.reloadFromFile(root, file, format, mainExecutor, watching, listener);
+        ConfigFileWatcher.watch(file, onFileChanged);
+        long modified = getLastModified(file);
+        if(root.syncedModified == -1)
+        {
+            root.syncedModified = modified;
+        }
+        else if(root.syncedModified != modified)
+        {
+            Util.getServerExecutor().execute(onFileChanged);
+        }
+        return () ->
+        {
+            watching.set(false);
+            ConfigFileWatcher.unwatch(file, onFileChanged);
+        };
+    }
+
+    private void reloadFromFile(ForgeFolderEntry root, Path file, ConfigFormat<?> format, Executor mainExecutor, AtomicBoolean watching, Consumer<Set<IConfigValue<?>>> listener)
+    {
+        if(!watching.get())
+            return;
+        long modified = getLastModified(file);
+        UnmodifiableConfig parsed;
+        try
+        {
+            parsed = format.createParser().parse(file, FileNotFoundAction.THROW_ERROR);
+        }
+        catch(Exception e)
+        {
+            // The file may still be in the middle of being written, it will be read again on the next change
+            Configured.LOGGER.debug("Failed to read changed config file {}", file, e);
+            return;
+        }
+        mainExecutor.execute(() ->
+        {
+            if(!watching.get())
+                return;
+            root.syncedModified = modified;
+            Set<IConfigValue<?>> updated = root.reload(parsed);
+            if(!updated.isEmpty())
+            {
+                Configured.LOGGER.info("Updated {} value(s) of {} from changes to the file", updated.size(), this.config.getFileName());
+                listener.accept(updated);
+            }
+        });
+    }
+
+    private static long getLastModified(Path file)
+    {
+        try
+        {
+            return Files.getLastModifiedTime(file).toMillis();
+        }
+        catch(IOException e)
+        {
+            return 0L;
+        }
+    }
 }
@@ -0,0 +1,110 @@
+package com.mrcrayfish.configured.impl;
+
+import com.mrcrayfish.configured.api.IPrimitiveConfigValue;
+import com.mrcrayfish.configured.util.ConfigHelper;
+import com.mrcrayfish.configured.util.Fingerprint;
+import net.minecraftforge.common.ForgeConfigSpec;
+import org.apache.commons.lang3.tuple.Pair;
+
+import javax.annotation.Nullable;
+import java.util.Set;
+
+/**
+ * A {@link AbstractForgeValue} that stores a double value without boxing. The range of the value is read
+ * from the spec once, so testing a value is a simple comparison. Values without a range are tested
+ * by the spec instead.
+ */
+public class ForgeDoubleValue extends AbstractForgeValue<Double> implements IPrimitiveConfigValue.OfDouble
+{
+    private double initialValue;
+    private final double defaultValue;
+    private final boolean ranged;
+    private final double min;
+    private final double max;
+    private double doubleValue;
+
+    public ForgeDoubleValue(ForgeConfigSpec.ConfigValue<Double> configValue, ForgeConfigSpec.ValueSpec valueSpec, @Nullable Set<AbstractForgeValue<?>> changeSet)
+    {
+        super(configValue, valueSpec, changeSet);
+        this.initialValue = configValue.get();
+        this.defaultValue = ((Number) valueSpec.getDefault()).doubleValue();
+        Pair<Double, Double> range = ConfigHelper.getRange(valueSpec);
+        this.ranged = range != null;
+        this.min = range != null ? range.getLeft() : Double.NEGATIVE_INFINITY;
+        this.max = range != null ? range.getRight() : Double.POSITIVE_INFINITY;
+        this.setDouble(this.initialValue);
+    }
+
+    @Override
+    public double getDouble()
+    {
+        return this.doubleValue;
+    }
+
+    @Override
+    public void setDouble(double value)
+    {
+        this.doubleValue = value;
+        this.updateState(Double.compare(value, this.defaultValue) == 0, Double.compare(value, this.initialValue) != 0);
+    }
+
+    @Override
+    public boolean isValidDouble(double value)
+    {
+        if(this.ranged)
+        {
+            return value >= this.min && value <= this.max;
+        }
+        return this.valueSpec.test(value);
+    }
+
+    @Override
+    public Double get()
+    {
+        return this.doubleValue;
+    }
+
+    @Override
+    public void set(Double value)
+    {
+        this.setDouble(value);
+    }
+
+    @Override
+    public boolean isValid(Double value)
+    {
+        return value != null && this.isValidDouble(value);
+    }
+
+    @Override
+    public void restore()
+    {
+        this.setDouble(this.defaultValue);
+    }
+
+    @Override
+    public long getFingerprint()
+    {
+        return Fingerprint.ofDouble(this.doubleValue);
+    }
+
+    @Override
+    public long getInitialFingerprint()
+    {
+        return Fingerprint.ofDouble(this.initialValue);
+    }
+
+    @Override
+    public void reload(Double value)
+    {
+        boolean edited = this.isChanged();
+        this.initialValue = value;
+        this.setDouble(edited ? this.doubleValue : value);
+    }
+
+    @Override
+    public Double getInitialValue()
+    {
+        return this.initialValue;
+    }
+}
@@ -5,10 +5,18 @@ import com.google.common.collect.ImmutableList;
 import com.mrcrayfish.configured.api.IConfigEntry;
 import com.mrcrayfish.configured.api.IConfigValue;
 import com.mrcrayfish.configured.api.ValueEntry;
+import com.mrcrayfish.configured.util.ConfigHelper;
+import com.mrcrayfish.configured.util.Fingerprint;
 import net.minecraftforge.common.ForgeConfigSpec;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 public class ForgeFolderEntry implements IConfigEntry
 {
@@ -16,14 +24,29 @@ public class ForgeFolderEntry implements IConfigEntry
     private final UnmodifiableConfig config;
     private final ForgeConfigSpec spec;
     private final boolean root;
+    private final Set<AbstractForgeValue<?>> changeSet;
+    @Nullable
+    private final ForgeFolderEntry parent;
     private List<IConfigEntry> entries;
+    private boolean counted;
+    private int modifiedCount;
+    private int changedCount;
+    /** The last modified time of the config file that the values of this tree were last synced with */
+    long syncedModified = -1;
 
     public ForgeFolderEntry(String label, UnmodifiableConfig config, ForgeConfigSpec spec, boolean root)
+    {
+        this(label, config, spec, root, new LinkedHashSet<>(), null);
+    }
+
+    private ForgeFolderEntry(String label, UnmodifiableConfig config, ForgeConfigSpec spec, boolean root, Set<AbstractForgeValue<?>> changeSet, @Nullable ForgeFolderEntry parent)
     {
         this.label = label;
         this.config = config;
         this.spec = spec;
         this.root = root;
+        this.changeSet = changeSet;
+        this.parent = parent;
     }
 
     @Override
@@ -37,19 +60,40 @@ public class ForgeFolderEntry implements IConfigEntry
             {
                 if(o instanceof UnmodifiableConfig)
                 {
-                    builder.add(new ForgeFolderEntry(s, (UnmodifiableConfig) o, this.spec, false));
+                    builder.add(new ForgeFolderEntry(s, (UnmodifiableConfig) o, this.spec, false, this.changeSet, this));
                 }
                 else if(o instanceof ForgeConfigSpec.ConfigValue<?>)
                 {
                     ForgeConfigSpec.ConfigValue<?> configValue = (ForgeConfigSpec.ConfigValue<?>) o;
-                    if(configValue.get() instanceof List)
+                    ForgeConfigSpec.ValueSpec valueSpec = this.spec.getRaw(configValue.getPath());
+                    Object rawValue = configValue.get();
+                    AbstractForgeValue<?> value;
+                    if(rawValue instanceof List)
                     {
-                        builder.add(new ValueEntry(new ForgeListValue((ForgeConfigSpec.ConfigValue<List<?>>) configValue, this.spec.getRaw(configValue.getPath()))));
+                        value = new ForgeListValue((ForgeConfigSpec.ConfigValue<List<?>>) configValue, valueSpec, this.changeSet);
+                    }
+                    else if(rawValue instanceof Integer)
+                    {
+                        value = new ForgeIntValue((ForgeConfigSpec.ConfigValue<Integer>) configValue, valueSpec, this.changeSet);
+                    }
+                    else if(rawValue instanceof Long)
+                    {
+                        value = new ForgeLongValue((ForgeConfigSpec.ConfigValue<Long>) configValue, valueSpec, this.changeSet);
+                    }
+                    else if(rawValue instanceof Double)
+                    {
+                        value = new ForgeDoubleValue((ForgeConfigSpec.ConfigValue<Double>) configValue, valueSpec, this.changeSet);
+                    }
+                    else if(rawValue instanceof Boolean)
+                    {
+                        value = new ForgeBooleanValue((ForgeConfigSpec.ConfigValue<Boolean>) configValue, valueSpec, this.changeSet);
                     }
                     else
                     {
-                        builder.add(new ValueEntry(new ForgeValue<>(configValue, this.spec.getRaw(configValue.getPath()))));
+                        value = new ForgeValue<>(configValue, valueSpec, this.changeSet);
                     }
+                    value.addListener(this::onValueChanged);
+                    builder.add(new ValueEntry(value));
                 }
             });
             this.entries = builder.build();
@@ -57,6 +101,163 @@ public class ForgeFolderEntry implements IConfigEntry
         return this.entries;
     }
 
+    /**
+     * Updates the values of the whole tree this folder belongs to with the values of the given
+     * config data, such as a config file that was edited outside of the game. Only values that
+     * differ from their initial value are updated, and values with unsaved edits keep their edit.
+     * Folders that have not been opened are skipped, since they are created from the config when
+     * they are first opened.
+     *
+     * @param data the new data of the config
+     * @return the values that were updated
+     */
+    public Set<IConfigValue<?>> reload(UnmodifiableConfig data)
+    {
+        Set<IConfigValue<?>> updated = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.getRootEntry().reloadValues(data, updated);
+        return updated;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void reloadValues(UnmodifiableConfig data, Set<IConfigValue<?>> updated)
+    {
+        if(this.entries == null)
+            return;
+        for(IConfigEntry entry : this.entries)
+        {
+            if(entry instanceof ForgeFolderEntry)
+            {
+                ((ForgeFolderEntry) entry).reloadValues(data, updated);
+                continue;
+            }
+            AbstractForgeValue<Object> value = (AbstractForgeValue<Object>) entry.getValue();
+            if(value == null)
+                continue;
+            Object raw = data.get(value.configValue.getPath());
+            if(raw == null)
+                continue;
+            // Fingerprints can collide, so a matching fingerprint is confirmed by comparing the values
+            Object newValue = convert(raw, value.getInitialValue());
+            if(newValue == null || (Fingerprint.of(newValue) == value.getInitialFingerprint() && Objects.equals(newValue, value.getInitialValue())))
+                continue;
+            if(value.valueSpec.test(newValue))
+            {
+                value.reload(newValue);
+                updated.add(value);
+            }
+        }
+    }
+
+    /**
+     * Converts a value read from a config file to the type of the current value, the same way Forge
+     * converts values when they are read. Returns null if the value can not be converted.
+     */
+    @Nullable
+    private static Object convert(@Nullable Object raw, Object current)
+    {
+        if(raw == null)
+            return null;
+        if(current instanceof Long && raw instanceof Integer)
+            return ((Integer) raw).longValue();
+        if(current instanceof Double && raw instanceof Number)
+            return ((Number) raw).doubleValue();
+        if(current instanceof Enum)
+        {
+            if(raw instanceof String)
+                return ConfigHelper.findEnumConstant(((Enum<?>) current).getDeclaringClass(), (String) raw);
+            return current.getClass().isInstance(raw) ? raw : null;
+        }
+        if(current instanceof List)
+            return raw instanceof List ? new ArrayList<>((List<?>) raw) : null;
+        return current.getClass().isInstance(raw) ? raw : null;
+    }
+
+    ForgeFolderEntry getRootEntry()
+    {
+        return this.parent != null ? this.parent.getRootEntry() : this;
+    }
+
+    /**
+     * Updates the counters of this folder and its parents when a value in this folder is set
+     */
+    private void onValueChanged(IConfigValue<?> value, boolean wasDefault, boolean wasChanged)
+    {
+        int modifiedDelta = Boolean.compare(wasDefault, value.isDefault());
+        int changedDelta = Boolean.compare(value.isChanged(), wasChanged);
+        if(modifiedDelta != 0 || changedDelta != 0)
+        {
+            this.updateCounts(modifiedDelta, changedDelta);
+        }
+    }
+
+    private void updateCounts(int modifiedDelta, int changedDelta)
+    {
+        // If this folder has not been counted yet, none of its parents have been either
+        if(this.counted)
+        {
+            this.modifiedCount += modifiedDelta;
+        }
+        this.changedCount += changedDelta;
+        if(this.parent != null)
+        {
+            this.parent.updateCounts(modifiedDelta, changedDelta);
+        }
+    }
+
+    /**
+     * Gets the amount of values in this folder and its sub folders that are not their default
+     * value. The first call has to create the whole tree of this folder, after that the count
+     * is kept up to date by listening to the values.
+     */
+    private int getModifiedCount()
+    {
+        if(!this.counted)
+        {
+            int count = 0;
+            for(IConfigEntry entry : this.getChildren())
+            {
+                if(entry instanceof ForgeFolderEntry)
+                {
+                    count += ((ForgeFolderEntry) entry).getModifiedCount();
+                }
+                else if(entry.isModified())
+                {
+                    count++;
+                }
+            }
+            this.modifiedCount = count;
+            this.counted = true;
+        }
+        return this.modifiedCount;
+    }
+
+    @Override
+    public boolean isModified()
+    {
+        return this.getModifiedCount() > 0;
+    }
+
+    /**
+     * Values always start unchanged when they are created, so unlike {@link #isModified()} this
+     * never needs to create the tree.
+     */
+    @Override
+    public boolean isChanged()
+    {
+        return this.changedCount > 0;
+    }
+
+    /**
+     * Gets the values that have been changed since the tree was created. The set is shared with
+     * the whole tree, so it includes changes made in folders outside of this entry.
+     *
+     * @return an unmodifiable view of the changed values
+     */
+    public Set<AbstractForgeValue<?>> getChangedValues()
+    {
+        return Collections.unmodifiableSet(this.changeSet);
+    }
+
     @Override
     public boolean isRoot()
     {
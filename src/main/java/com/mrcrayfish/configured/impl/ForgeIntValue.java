@@ -0,0 +1,110 @@
+package com.mrcrayfish.configured.impl;
+
+import com.mrcrayfish.configured.api.IPrimitiveConfigValue;
+import com.mrcrayfish.configured.util.ConfigHelper;
+import com.mrcrayfish.configured.util.Fingerprint;
+import net.minecraftforge.common.ForgeConfigSpec;
+import org.apache.commons.lang3.tuple.Pair;
+
+import javax.annotation.Nullable;
+import java.util.Set;
+
+/**
+ * A {@link AbstractForgeValue} that stores an int value without boxing. The range of the value is read
+ * from the spec once, so testing a value is a simple comparison. Values without a range are tested
+ * by the spec instead.
+ */
+public class ForgeIntValue extends AbstractForgeValue<Integer> implements IPrimitiveConfigValue.OfInt
+{
+    private int initialValue;
+    private final int defaultValue;
+    private final boolean ranged;
+    private final int min;
+    private final int max;
+    private int intValue;
+
+    public ForgeIntValue(ForgeConfigSpec.ConfigValue<Integer> configValue, ForgeConfigSpec.ValueSpec valueSpec, @Nullable Set<AbstractForgeValue<?>> changeSet)
+    {
+        super(configValue, valueSpec, changeSet);
+        this.initialValue = configValue.get();
+        this.defaultValue = ((Number) valueSpec.getDefault()).intValue();
+        Pair<Integer, Integer> range = ConfigHelper.getRange(valueSpec);
+        this.ranged = range != null;
+        this.min = range != null ? range.getLeft() : Integer.MIN_VALUE;
+        this.max = range != null ? range.getRight() : Integer.MAX_VALUE;
+        this.setInt(this.initialValue);
+    }
+
+    @Override
+    public int getInt()
+    {
+        return this.intValue;
+    }
+
+    @Override
+    public void setInt(int value)
+    {
+        this.intValue = value;
+        this.updateState(value == this.defaultValue, value != this.initialValue);
+    }
+
+    @Override
+    public boolean isValidInt(int value)
+    {
+        if(this.ranged)
+        {
+            return value >= this.min && value <= this.max;
+        }
+        return this.valueSpec.test(value);
+    }
+
+    @Override
+    public Integer get()
+    {
+        return this.intValue;
+    }
+
+    @Override
+    public void set(Integer value)
+    {
+        this.setInt(value);
+    }
+
+    @Override
+    public boolean isValid(Integer value)
+    {
+        return value != null && this.isValidInt(value);
+    }
+
+    @Override
+    public void restore()
+    {
+        this.setInt(this.defaultValue);
+    }
+
+    @Override
+    public long getFingerprint()
+    {
+        return Fingerprint.ofLong(this.intValue);
+    }
+
+    @Override
+    public long getInitialFingerprint()
+    {
+        return Fingerprint.ofLong(this.initialValue);
+    }
+
+    @Override
+    public void reload(Integer value)
+    {
+        boolean edited = this.isChanged();
+        this.initialValue = value;
+        this.setInt(edited ? this.intValue : value);
+    }
+
+    @Override
+    public Integer getInitialValue()
+    {
+        return this.initialValue;
+    }
+}
@@ -1,5 +1,7 @@
 package com.mrcrayfish.configured.impl;
 
+import com.google.common.collect.ImmutableList;
+import com.mrcrayfish.configured.util.ListType;
 import net.minecraftforge.common.ForgeConfigSpec;
 import net.minecraftforge.common.ForgeConfigSpec.ConfigValue;
 import net.minecraftforge.common.ForgeConfigSpec.ValueSpec;
@@ -8,16 +10,24 @@ import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Function;
 
 public class ForgeListValue extends ForgeValue<List<?>>
 {
     private final Function<List<?>, List<?>> converter;
+    private final ListType listType;
 
     public ForgeListValue(ConfigValue<List<?>> configValue, ValueSpec valueSpec)
     {
-        super(configValue, valueSpec);
+        this(configValue, valueSpec, null);
+    }
+
+    public ForgeListValue(ConfigValue<List<?>> configValue, ValueSpec valueSpec, @Nullable Set<AbstractForgeValue<?>> changeSet)
+    {
+        super(configValue, valueSpec, changeSet);
         this.converter = this.createConverter(configValue);
+        this.listType = ListType.fromSpec(valueSpec);
     }
 
     @Nullable
@@ -40,11 +50,42 @@ public class ForgeListValue extends ForgeValue<List<?>>
     public void set(List<?> value)
     {
         this.valueSpec.correct(value);
-        super.set(new ArrayList<>(value));
+        super.set(value);
+    }
+
+    @Override
+    public void set(List<?> value, long fingerprint)
+    {
+        this.valueSpec.correct(value);
+        super.set(value, fingerprint);
+    }
+
+    /**
+     * Stores the list as an immutable copy. Copying a list that is already immutable, such as a list
+     * from the undo history, returns the same list, so setting it again does not copy it.
+     */
+    @Override
+    protected List<?> copy(List<?> value)
+    {
+        return ImmutableList.copyOf(value);
     }
 
     public Function<List<?>, List<?>> getConverter()
     {
         return this.converter;
     }
+
+    /**
+     * @return the type of the elements of the list, inferred once per value spec
+     */
+    public ListType getListType()
+    {
+        return this.listType;
+    }
+
+    @Override
+    public Object getSaveValue()
+    {
+        return this.converter != null ? this.converter.apply(this.get()) : new ArrayList<>(this.get());
+    }
 }
\ No newline at end of file
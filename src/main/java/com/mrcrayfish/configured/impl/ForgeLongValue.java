@@ -0,0 +1,110 @@
+package com.mrcrayfish.configured.impl;
+
+import com.mrcrayfish.configured.api.IPrimitiveConfigValue;
+import com.mrcrayfish.configured.util.ConfigHelper;
+import com.mrcrayfish.configured.util.Fingerprint;
+import net.minecraftforge.common.ForgeConfigSpec;
+import org.apache.commons.lang3.tuple.Pair;
+
+import javax.annotation.Nullable;
+import java.util.Set;
+
+/**
+ * A {@link AbstractForgeValue} that stores a long value without boxing. The range of the value is read
+ * from the spec once, so testing a value is a simple comparison. Values without a range are tested
+ * by the spec instead.
+ */
+public class ForgeLongValue extends AbstractForgeValue<Long> implements IPrimitiveConfigValue.OfLong
+{
+    private long initialValue;
+    private final long defaultValue;
+    private final boolean ranged;
+    private final long min;
+    private final long max;
+    private long longValue;
+
+    public ForgeLongValue(ForgeConfigSpec.ConfigValue<Long> configValue, ForgeConfigSpec.ValueSpec valueSpec, @Nullable Set<AbstractForgeValue<?>> changeSet)
+    {
+        super(configValue, valueSpec, changeSet);
+        this.initialValue = configValue.get();
+        this.defaultValue = ((Number) valueSpec.getDefault()).longValue();
+        Pair<Long, Long> range = ConfigHelper.getRange(valueSpec);
+        this.ranged = range != null;
+        this.min = range != null ? range.getLeft() : Long.MIN_VALUE;
+        this.max = range != null ? range.getRight() : Long.MAX_VALUE;
+        this.setLong(this.initialValue);
+    }
+
+    @Override
+    public long getLong()
+    {
+        return this.longValue;
+    }
+
+    @Override
+    public void setLong(long value)
+    {
+        this.longValue = value;
+        this.updateState(value == this.defaultValue, value != this.initialValue);
+    }
+
+    @Override
+    public boolean isValidLong(long value)
+    {
+        if(this.ranged)
+        {
+            return value >= this.min && value <= this.max;
+        }
+        return this.valueSpec.test(value);
+    }
+
+    @Override
+    public Long get()
+    {
+        return this.longValue;
+    }
+
+    @Override
+    public void set(Long value)
+    {
+        this.setLong(value);
+    }
+
+    @Override
+    public boolean isValid(Long value)
+    {
+        return value != null && this.isValidLong(value);
+    }
+
+    @Override
+    public void restore()
+    {
+        this.setLong(this.defaultValue);
+    }
+
+    @Override
+    public long getFingerprint()
+    {
+        return Fingerprint.ofLong(this.longValue);
+    }
+
+    @Override
+    public long getInitialFingerprint()
+    {
+        return Fingerprint.ofLong(this.initialValue);
+    }
+
+    @Override
+    public void reload(Long value)
+    {
+        boolean edited = this.isChanged();
+        this.initialValue = value;
+        this.setLong(edited ? this.longValue : value);
+    }
+
+    @Override
+    public Long getInitialValue()
+    {
+        return this.initialValue;
+    }
+}
@@ -1,107 +1,138 @@
 package com.mrcrayfish.configured.impl;
 
-import com.mrcrayfish.configured.api.IConfigValue;
+import com.mrcrayfish.configured.util.Fingerprint;
 import net.minecraftforge.common.ForgeConfigSpec;
 
-import java.util.List;
+import javax.annotation.Nullable;
 import java.util.Objects;
+import java.util.Set;
 
-public class ForgeValue<T> implements IConfigValue<T>
+public class ForgeValue<T> extends AbstractForgeValue<T>
 {
-    public final ForgeConfigSpec.ConfigValue<T> configValue;
-    public final ForgeConfigSpec.ValueSpec valueSpec;
-    private final T initialValue;
+    private T initialValue;
+    // Fingerprints are only computed once they are needed to compare values, since hashing a large list costs as much as comparing it
+    private long fingerprint;
+    private long initialFingerprint;
+    private long defaultFingerprint;
+    private boolean hasFingerprint;
+    private boolean hasInitialFingerprint;
+    private boolean hasDefaultFingerprint;
     protected T value;
 
     public ForgeValue(ForgeConfigSpec.ConfigValue<T> configValue, ForgeConfigSpec.ValueSpec valueSpec)
     {
-        this.configValue = configValue;
-        this.valueSpec = valueSpec;
-        this.initialValue = configValue.get();
-        this.set(configValue.get());
+        this(configValue, valueSpec, null);
     }
 
-    @Override
-    public T get()
-    {
-        return this.value;
-    }
-
-    @Override
-    public void set(T value)
+    /**
+     * @param changeSet a set shared by all values of a config tree, see {@link AbstractForgeValue}
+     */
+    public ForgeValue(ForgeConfigSpec.ConfigValue<T> configValue, ForgeConfigSpec.ValueSpec valueSpec, @Nullable Set<AbstractForgeValue<?>> changeSet)
     {
-        this.value = value;
+        super(configValue, valueSpec, changeSet);
+        this.initialValue = this.copy(configValue.get());
+        this.value = this.initialValue;
+        // Only compared once when the tree is created, so it's cheaper to compare the values directly
+        this.updateState(Objects.equals(this.value, valueSpec.getDefault()), false);
     }
 
-    @Override
-    public boolean isDefault()
+    /**
+     * Converts a value into the form it's stored in by this holder
+     *
+     * @param value the value to convert
+     * @return the converted value, or the value itself if it doesn't need to be converted
+     */
+    protected T copy(T value)
     {
-        return Objects.equals(this.get(), this.valueSpec.getDefault());
+        return value;
     }
 
     @Override
-    public boolean isChanged()
+    public T get()
     {
-        return !Objects.equals(this.get(), this.initialValue);
+        return this.value;
     }
 
     @Override
-    public void restore()
+    public void set(T value)
     {
-        this.set(this.getDefault());
+        this.value = this.copy(value);
+        this.hasFingerprint = false;
+        this.compareAndUpdateState();
     }
 
-    @Override
-    @SuppressWarnings("unchecked")
-    public T getDefault()
+    /**
+     * Sets a value of which the fingerprint is already known, such as a value restored by an undo,
+     * so it doesn't have to be computed again.
+     *
+     * @param value       the new value
+     * @param fingerprint the fingerprint of the value
+     */
+    public void set(T value, long fingerprint)
     {
-        return (T) this.valueSpec.getDefault();
+        this.value = this.copy(value);
+        this.fingerprint = fingerprint;
+        this.hasFingerprint = true;
+        this.compareAndUpdateState();
     }
 
-    @Override
-    public boolean isValid(T value)
+    /**
+     * Compares the current value with the default and initial value. An undo usually restores the
+     * same instance as the initial value, which needs no comparison at all. Otherwise values are
+     * only compared in full if their fingerprints match, which is rare for large lists that differ.
+     */
+    private void compareAndUpdateState()
     {
-        return this.valueSpec.test(value);
+        Object defaultValue = this.valueSpec.getDefault();
+        boolean isDefault = this.value == defaultValue || (this.getFingerprint() == this.getDefaultFingerprint() && Objects.equals(this.value, defaultValue));
+        boolean isChanged = this.value != this.initialValue && (this.getFingerprint() != this.getInitialFingerprint() || !Objects.equals(this.value, this.initialValue));
+        this.updateState(isDefault, isChanged);
     }
 
     @Override
-    public String getComment()
+    public void reload(T value)
     {
-        return this.valueSpec.getComment();
+        boolean edited = this.isChanged();
+        this.initialValue = this.copy(value);
+        this.hasInitialFingerprint = false;
+        this.set(edited ? this.value : this.initialValue);
     }
 
     @Override
-    public String getTranslationKey()
+    public T getInitialValue()
     {
-        return this.valueSpec.getTranslationKey();
+        return this.initialValue;
     }
 
     @Override
-    public String getPath()
+    public long getFingerprint()
     {
-        return lastValue(this.configValue.getPath(), "");
+        if(!this.hasFingerprint)
+        {
+            this.fingerprint = Fingerprint.of(this.value);
+            this.hasFingerprint = true;
+        }
+        return this.fingerprint;
     }
 
     @Override
-    public void cleanCache()
+    public long getInitialFingerprint()
     {
-        this.configValue.clearCache();
+        if(!this.hasInitialFingerprint)
+        {
+            this.initialFingerprint = Fingerprint.of(this.initialValue);
+            this.hasInitialFingerprint = true;
+        }
+        return this.initialFingerprint;
     }
 
-    /**
-     * Gets the last element in a list
-     *
-     * @param list         the list of get the value from
-     * @param defaultValue if the list is empty, return this value instead
-     * @param <V>          the type of list
-     * @return the last element
-     */
-    public static <V> V lastValue(List<V> list, V defaultValue)
+    private long getDefaultFingerprint()
     {
-        if(list.size() > 0)
+        if(!this.hasDefaultFingerprint)
         {
-            return list.get(list.size() - 1);
+            this.defaultFingerprint = Fingerprint.of(this.valueSpec.getDefault());
+            this.hasDefaultFingerprint = true;
         }
-        return defaultValue;
+        return this.defaultFingerprint;
     }
 }
@@ -0,0 +1,358 @@
+package com.mrcrayfish.configured.util;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+import com.electronwill.nightconfig.core.UnmodifiableConfig;
+import com.electronwill.nightconfig.core.file.CommentedFileConfig;
+import com.electronwill.nightconfig.core.file.FileConfig;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mrcrayfish.configured.Configured;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.Util;
+import net.minecraftforge.common.ForgeConfigSpec;
+import net.minecraftforge.fml.config.ModConfig;
+import net.minecraftforge.fml.loading.FMLConfig;
+import net.minecraftforge.fml.loading.FMLPaths;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Applies the same changes to a server config of many worlds without opening them. Edits are parsed
+ * and validated against the spec of the config once, then every world is updated in parallel on a
+ * small pool of threads, which is shut down once the batch is complete. Configs that do not exist
+ * yet are created from the default config, the same way Forge creates them when a world is loaded.
+ * The config of a world that is currently loaded is changed and reloaded on the server thread.
+ */
+public class BatchConfigEditor
+{
+    private static final int MAX_THREADS = 8;
+
+    /**
+     * Parses edits in the form of a path and the text of a value, such as "general.maxEntities"
+     * and "10". Lists are written as comma separated elements, optionally inside of brackets.
+     *
+     * @param spec  the spec of the config to edit
+     * @param edits a map of paths to the text of their new value
+     * @return a map of paths to the parsed values
+     * @throws IllegalArgumentException if a path does not exist or a value is invalid
+     */
+    public static Map<List<String>, Object> parseEdits(ForgeConfigSpec spec, Map<String, String> edits)
+    {
+        Map<List<String>, Object> parsed = new LinkedHashMap<>();
+        edits.forEach((path, text) ->
+        {
+            List<String> splitPath = ImmutableList.copyOf(Splitter.on('.').split(path));
+            Object raw = spec.getRaw(splitPath);
+            if(!(raw instanceof ForgeConfigSpec.ValueSpec))
+            {
+                throw new IllegalArgumentException("Unknown config value: " + path);
+            }
+            ForgeConfigSpec.ValueSpec valueSpec = (ForgeConfigSpec.ValueSpec) raw;
+            Object value = parseValue(valueSpec, text);
+            if(value == null || !valueSpec.test(value))
+            {
+                throw new IllegalArgumentException("Invalid value for " + path + ": " + text);
+            }
+            parsed.put(splitPath, value);
+        });
+        return parsed;
+    }
+
+    @Nullable
+    private static Object parseValue(ForgeConfigSpec.ValueSpec valueSpec, String text)
+    {
+        Object defaultValue = valueSpec.getDefault();
+        if(defaultValue instanceof Integer)
+            return Ints.tryParse(text);
+        if(defaultValue instanceof Long)
+            return Longs.tryParse(text);
+        if(defaultValue instanceof Double)
+            return Doubles.tryParse(text);
+        if(defaultValue instanceof Boolean)
+            return text.equalsIgnoreCase("true") ? Boolean.TRUE : text.equalsIgnoreCase("false") ? Boolean.FALSE : null;
+        if(defaultValue instanceof Enum)
+            return ConfigHelper.findEnumConstant(((Enum<?>) defaultValue).getDeclaringClass(), text);
+        if(defaultValue instanceof List)
+        {
+            String elements = text.trim();
+            if(elements.startsWith("[") && elements.endsWith("]"))
+            {
+                elements = elements.substring(1, elements.length() - 1);
+            }
+            ListType type = ListType.fromSpec(valueSpec);
+            List<Object> list = new ArrayList<>();
+            for(String element : Splitter.on(',').trimResults().omitEmptyStrings().split(elements))
+            {
+                Object value = type.getValueParser().apply(element);
+                if(value == null)
+                    return null;
+                list.add(value);
+            }
+            return list;
+        }
+        return text;
+    }
+
+    /**
+     * Finds the worlds in the given directory, which are the sub directories that contain a level.dat
+     *
+     * @param directory the directory to search, such as the saves directory
+     * @return the paths of the worlds
+     */
+    public static List<Path> findWorlds(Path directory) throws IOException
+    {
+        if(!Files.isDirectory(directory))
+            return ImmutableList.of();
+        try(Stream<Path> stream = Files.list(directory))
+        {
+            return stream.filter(path -> Files.isRegularFile(path.resolve("level.dat"))).sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Applies the edits to the server config of every given world in parallel.
+     *
+     * @param config the server config to edit
+     * @param edits  the edits, see {@link #parseEdits(ForgeConfigSpec, Map)}
+     * @param worlds the directories of the worlds
+     * @return a future that completes with the result of every world, in the order of the worlds
+     */
+    public static CompletableFuture<List<Result>> apply(ModConfig config, Map<List<String>, Object> edits, List<Path> worlds)
+    {
+        if(!(config.getSpec() instanceof ForgeConfigSpec))
+            throw new IllegalArgumentException("Only Forge configs can be edited");
+        ForgeConfigSpec spec = (ForgeConfigSpec) config.getSpec();
+        int threads = Math.max(1, Math.min(MAX_THREADS, Math.min(worlds.size(), Runtime.getRuntime().availableProcessors())));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setNameFormat("Configured Batch Editor %d").setDaemon(true).build());
+        List<CompletableFuture<Result>> futures = worlds.stream().map(world -> CompletableFuture.supplyAsync(() -> applyToWorld(config, spec, edits, world), executor)).collect(Collectors.toList());
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(v ->
+        {
+            executor.shutdown();
+            return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        });
+    }
+
+    /**
+     * Copies every value of the server config of one world to the server config of the given worlds.
+     * Values that are missing from the config of the source world are copied as their default.
+     *
+     * @param config the server config to copy
+     * @param source the directory of the world to copy the config from
+     * @param worlds the directories of the worlds to copy the config to
+     * @return a future that completes with the result of every world, in the order of the worlds
+     */
+    public static CompletableFuture<List<Result>> copy(ModConfig config, Path source, List<Path> worlds)
+    {
+        if(!(config.getSpec() instanceof ForgeConfigSpec))
+            throw new IllegalArgumentException("Only Forge configs can be edited");
+        ForgeConfigSpec spec = (ForgeConfigSpec) config.getSpec();
+        return CompletableFuture.supplyAsync(() -> readValues(config, spec, source), Util.getServerExecutor()).thenCompose(values -> apply(config, values, worlds));
+    }
+
+    private static Map<List<String>, Object> readValues(ModConfig config, ForgeConfigSpec spec, Path world)
+    {
+        Path file = world.resolve("serverconfig").resolve(config.getFileName()).toAbsolutePath();
+        ConfigWriter.flush(file);
+        CommentedFileConfig data = CommentedFileConfig.builder(file).sync().preserveInsertionOrder().build();
+        try
+        {
+            if(Files.exists(file))
+            {
+                data.load();
+            }
+            // Only corrected in memory, the file of the source world is left as is
+            spec.correct(data);
+            Map<List<String>, Object> values = new LinkedHashMap<>();
+            gatherValues(spec, data, ImmutableList.of(), values);
+            return values;
+        }
+        finally
+        {
+            data.close();
+        }
+    }
+
+    private static void gatherValues(UnmodifiableConfig spec, UnmodifiableConfig data, List<String> parent, Map<List<String>, Object> values)
+    {
+        spec.valueMap().forEach((key, value) ->
+        {
+            List<String> path = ImmutableList.<String>builder().addAll(parent).add(key).build();
+            if(value instanceof UnmodifiableConfig)
+            {
+                gatherValues((UnmodifiableConfig) value, data, path, values);
+            }
+            else if(value instanceof ForgeConfigSpec.ValueSpec)
+            {
+                values.put(path, data.get(path));
+            }
+        });
+    }
+
+    private static Result applyToWorld(ModConfig config, ForgeConfigSpec spec, Map<List<String>, Object> edits, Path world)
+    {
+        Path file = world.resolve("serverconfig").resolve(config.getFileName()).toAbsolutePath();
+        try
+        {
+            CommentedConfig loadedData = config.getConfigData();
+            if(loadedData instanceof FileConfig && ((FileConfig) loadedData).getNioPath().toAbsolutePath().equals(file))
+            {
+                // The world is currently loaded, so the loaded data is changed instead. Mods read their
+                // config values on the server thread, so the data is changed and reloaded there.
+                MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+                if(server != null && !server.isOnExecutionThread())
+                {
+                    return CompletableFuture.supplyAsync(() -> applyToLoadedWorld(config, spec, edits, world, (FileConfig) loadedData), server).join();
+                }
+                return applyToLoadedWorld(config, spec, edits, world, (FileConfig) loadedData);
+            }
+
+            ConfigWriter.flush(file);
+            boolean created = !Files.exists(file);
+            if(created)
+            {
+                Files.createDirectories(file.getParent());
+                Path defaultConfig = FMLPaths.GAMEDIR.get().resolve(FMLConfig.defaultConfigPath()).resolve(config.getFileName());
+                if(Files.exists(defaultConfig))
+                {
+                    Files.copy(defaultConfig, file);
+                }
+            }
+
+            CommentedFileConfig data = CommentedFileConfig.builder(file).sync().preserveInsertionOrder().build();
+            try
+            {
+                data.load();
+                // Fills in missing values and fixes invalid ones, like Forge does when it loads a config
+                boolean changed = spec.correct(data) > 0;
+                for(Map.Entry<List<String>, Object> entry : edits.entrySet())
+                {
+                    if(!isSameValue(data.get(entry.getKey()), entry.getValue()))
+                    {
+                        data.set(entry.getKey(), entry.getValue());
+                        changed = true;
+                    }
+                }
+                if(!changed && !created)
+                {
+                    return new Result(world, Status.UNCHANGED, "Already up to date");
+                }
+                ConfigWriter.writeNow(data);
+                return new Result(world, Status.UPDATED, created ? "Created config" : "Updated config");
+            }
+            finally
+            {
+                data.close();
+            }
+        }
+        catch(Exception e)
+        {
+            return failed(config, world, e);
+        }
+    }
+
+    private static Result applyToLoadedWorld(ModConfig config, ForgeConfigSpec spec, Map<List<String>, Object> edits, Path world, FileConfig loadedData)
+    {
+        try
+        {
+            synchronized(loadedData)
+            {
+                if(edits.entrySet().stream().allMatch(entry -> isSameValue(loadedData.get(entry.getKey()), entry.getValue())))
+                {
+                    return new Result(world, Status.UNCHANGED, "Already up to date");
+                }
+            }
+            ConfigHelper.saveChanges(config, edits);
+            // Written now instead of by the background writer, so the result reflects what is on disk
+            ConfigWriter.writeNow(loadedData);
+            // The file is replaced by the writer, which the file watcher of Forge doesn't notice, so
+            // the values are reloaded and the mod is notified here
+            spec.afterReload();
+            ConfigHelper.fireEvent(config, ConfigHelper.reloadingEvent(config));
+            return new Result(world, Status.UPDATED, "Updated loaded world");
+        }
+        catch(Exception e)
+        {
+            return failed(config, world, e);
+        }
+    }
+
+    private static Result failed(ModConfig config, Path world, Exception e)
+    {
+        Configured.LOGGER.error("Failed to edit {} of world {}", config.getFileName(), world, e);
+        return new Result(world, Status.FAILED, String.valueOf(e.getMessage()));
+    }
+
+    /**
+     * Compares a value of the config data with an edit. Enums are stored by name in a file, but
+     * are kept as constants after they are set.
+     */
+    private static boolean isSameValue(@Nullable Object current, Object value)
+    {
+        if(value instanceof Enum && current instanceof String)
+        {
+            return ((Enum<?>) value).name().equals(current);
+        }
+        return Objects.equals(current, value);
+    }
+
+    public enum Status
+    {
+        UPDATED, UNCHANGED, FAILED
+    }
+
+    /**
+     * The result of editing the config of a single world
+     */
+    public static class Result
+    {
+        private final Path world;
+        private final Status status;
+        private final String message;
+
+        private Result(Path world, Status status, String message)
+        {
+            this.world = world;
+            this.status = status;
+            this.message = message;
+        }
+
+        public Path getWorld()
+        {
+            return this.world;
+        }
+
+        public Status getStatus()
+        {
+            return this.status;
+        }
+
+        public String getMessage()
+        {
+            return this.message;
+        }
+
+        @Override
+        public String toString()
+        {
+            return this.world.getFileName() + ": " + this.status.name().toLowerCase() + " (" + this.message + ")";
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.mrcrayfish.configured.util;
+
+import com.mrcrayfish.configured.Configured;
+import com.mrcrayfish.configured.api.ConfigChange;
+import com.mrcrayfish.configured.api.IConfigChangeListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Collects the changes of saved configs and notifies the subscribed listeners once per tick. Changes
+ * of the same value within a tick are merged, and values that were changed back to their original
+ * value are dropped.
+ */
+public class ConfigChangeDispatcher
+{
+    private static final List<Subscription> SUBSCRIPTIONS = new CopyOnWriteArrayList<>();
+    private static Map<String, Map<List<String>, ConfigChange>> pending = new LinkedHashMap<>();
+
+    /**
+     * Subscribes a listener to changes of the values at or below the given path of a config.
+     *
+     * @param fileName the file name of the config
+     * @param path     the path of a value or folder in the config. An empty path matches all values
+     * @param listener the listener to notify
+     */
+    public static void subscribe(String fileName, List<String> path, IConfigChangeListener listener)
+    {
+        SUBSCRIPTIONS.add(new Subscription(fileName, path, listener));
+    }
+
+    /**
+     * Removes all subscriptions of the given listener
+     *
+     * @param listener the listener to remove
+     */
+    public static void unsubscribe(IConfigChangeListener listener)
+    {
+        SUBSCRIPTIONS.removeIf(subscription -> subscription.listener == listener);
+    }
+
+    /**
+     * Queues the changes of a saved config. Listeners are notified on the next call to {@link #dispatch()}.
+     *
+     * @param changes the changes of the config
+     */
+    public static synchronized void post(String fileName, List<ConfigChange> changes)
+    {
+        // Nothing to collect if no one is listening
+        if(SUBSCRIPTIONS.isEmpty() || changes.isEmpty())
+            return;
+        Map<List<String>, ConfigChange> fileChanges = pending.computeIfAbsent(fileName, s -> new LinkedHashMap<>());
+        changes.forEach(change -> fileChanges.merge(change.getPath(), change, ConfigChange::merge));
+    }
+
+    /**
+     * Notifies the listeners of the changes that were queued since the last dispatch. Called at the
+     * end of every client tick.
+     */
+    public static void dispatch()
+    {
+        Map<String, Map<List<String>, ConfigChange>> changes;
+        synchronized(ConfigChangeDispatcher.class)
+        {
+            if(pending.isEmpty())
+                return;
+            changes = pending;
+            pending = new LinkedHashMap<>();
+        }
+        for(Subscription subscription : SUBSCRIPTIONS)
+        {
+            Map<List<String>, ConfigChange> fileChanges = changes.get(subscription.fileName);
+            if(fileChanges == null)
+                continue;
+            List<ConfigChange> matches = new ArrayList<>();
+            for(ConfigChange change : fileChanges.values())
+            {
+                if(subscription.matches(change.getPath()) && !Objects.equals(change.getOldValue(), change.getNewValue()))
+                {
+                    matches.add(change);
+                }
+            }
+            if(!matches.isEmpty())
+            {
+                // A failing listener should not stop the other listeners from being notified
+                try
+                {
+                    subscription.listener.onConfigChanged(matches);
+                }
+                catch(Exception e)
+                {
+                    Configured.LOGGER.error("Config change listener for {} threw an exception", subscription.fileName, e);
+                }
+            }
+        }
+    }
+
+    private static class Subscription
+    {
+        private final String fileName;
+        private final List<String> path;
+        private final IConfigChangeListener listener;
+
+        private Subscription(String fileName, List<String> path, IConfigChangeListener listener)
+        {
+            this.fileName = fileName;
+            this.path = path;
+            this.listener = listener;
+        }
+
+        private boolean matches(List<String> changedPath)
+        {
+            return changedPath.size() >= this.path.size() && changedPath.subList(0, this.path.size()).equals(this.path);
+        }
+    }
+}
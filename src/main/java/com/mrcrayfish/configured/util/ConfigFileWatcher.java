@@ -0,0 +1,160 @@
+package com.mrcrayfish.configured.util;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mrcrayfish.configured.Configured;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches config files for changes made outside of the game using a single {@link WatchService}.
+ * Editors and scripts often write a file in several steps, so the events of a file are debounced
+ * and listeners are only notified once the file has not changed for a short time. Listeners are
+ * called on a background thread.
+ */
+public class ConfigFileWatcher
+{
+    private static final long DEBOUNCE_MS = 300;
+
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("Configured File Watcher Debounce").setDaemon(true).build());
+    private static final Map<Path, Watch> WATCHES = new HashMap<>();
+    private static final Map<Path, WatchKey> DIRECTORIES = new HashMap<>();
+    private static WatchService service;
+
+    /**
+     * Starts notifying the listener when the given file changes.
+     *
+     * @param file     the file to watch
+     * @param listener the listener to notify
+     */
+    public static synchronized void watch(Path file, Runnable listener)
+    {
+        Path path = file.toAbsolutePath();
+        Watch watch = WATCHES.get(path);
+        if(watch == null)
+        {
+            Path directory = path.getParent();
+            if(!DIRECTORIES.containsKey(directory))
+            {
+                try
+                {
+                    DIRECTORIES.put(directory, directory.register(getService(), StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY));
+                }
+                catch(IOException e)
+                {
+                    Configured.LOGGER.error("Failed to watch config directory {}", directory, e);
+                    return;
+                }
+            }
+            watch = new Watch();
+            WATCHES.put(path, watch);
+        }
+        watch.listeners.add(listener);
+    }
+
+    /**
+     * Stops notifying the listener when the given file changes. The directory of the file is no
+     * longer watched once none of its files are watched.
+     *
+     * @param file     the file that is watched
+     * @param listener the listener to remove
+     */
+    public static synchronized void unwatch(Path file, Runnable listener)
+    {
+        Path path = file.toAbsolutePath();
+        Watch watch = WATCHES.get(path);
+        if(watch == null)
+            return;
+        watch.listeners.remove(listener);
+        if(!watch.listeners.isEmpty())
+            return;
+        watch.cancel();
+        WATCHES.remove(path);
+        Path directory = path.getParent();
+        if(WATCHES.keySet().stream().noneMatch(p -> directory.equals(p.getParent())))
+        {
+            WatchKey key = DIRECTORIES.remove(directory);
+            if(key != null) key.cancel();
+        }
+    }
+
+    private static WatchService getService() throws IOException
+    {
+        if(service == null)
+        {
+            service = FileSystems.getDefault().newWatchService();
+            Thread thread = new Thread(ConfigFileWatcher::run, "Configured File Watcher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return service;
+    }
+
+    private static void run()
+    {
+        try
+        {
+            while(true)
+            {
+                WatchKey key = service.take();
+                Path directory = (Path) key.watchable();
+                for(WatchEvent<?> event : key.pollEvents())
+                {
+                    synchronized(ConfigFileWatcher.class)
+                    {
+                        if(event.kind() == StandardWatchEventKinds.OVERFLOW)
+                        {
+                            // Events were lost, so every file in the directory may have changed
+                            WATCHES.forEach((path, watch) -> {
+                                if(directory.equals(path.getParent())) watch.schedule();
+                            });
+                            continue;
+                        }
+                        Watch watch = WATCHES.get(directory.resolve((Path) event.context()));
+                        if(watch != null)
+                        {
+                            watch.schedule();
+                        }
+                    }
+                }
+                key.reset();
+            }
+        }
+        catch(InterruptedException | ClosedWatchServiceException ignored) {}
+    }
+
+    private static class Watch
+    {
+        private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+        private ScheduledFuture<?> pending;
+
+        private void schedule()
+        {
+            this.cancel();
+            this.pending = EXECUTOR.schedule(() -> this.listeners.forEach(Runnable::run), DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+        }
+
+        private void cancel()
+        {
+            if(this.pending != null)
+            {
+                this.pending.cancel(false);
+                this.pending = null;
+            }
+        }
+    }
+}
@@ -13,9 +13,12 @@ import com.mrcrayfish.configured.api.IConfigValue;
 import com.mrcrayfish.configured.api.IModConfig;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import net.minecraftforge.common.ForgeConfigSpec;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.fml.ModList;
 import net.minecraftforge.fml.common.ObfuscationReflectionHelper;
 import net.minecraftforge.fml.config.ConfigTracker;
 import net.minecraftforge.fml.config.ModConfig;
+import net.minecraftforge.fml.javafmlmod.FMLModContainer;
 import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nullable;
@@ -33,15 +36,23 @@ import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Author: MrCrayfish
  */
 public class ConfigHelper
 {
-    private static final Method MOD_CONFIG_SET_CONFIG_DATA = ObfuscationReflectionHelper.findMethod(ModConfig.class, "setConfigData", CommentedConfig.class);
-    private static final Method MOD_CONFIG_FIRE_EVENT = ObfuscationReflectionHelper.findMethod(ModConfig.class, "fireEvent", ModConfig.ModConfigEvent.class);
+    // Forge classes are never obfuscated, so these are resolved without remapping. This also allows them to be used outside of FML (e.g. benchmarks)
+    private static final Method MOD_CONFIG_SET_CONFIG_DATA = findMethod(ModConfig.class, "setConfigData", CommentedConfig.class);
+    private static final Method MOD_CONFIG_FIRE_EVENT = findMethod(ModConfig.class, "fireEvent", ModConfig.ModConfigEvent.class);
     private static final Constructor<ModConfig.Reloading> MOD_CONFIG_RELOADING = ObfuscationReflectionHelper.findConstructor(ModConfig.Reloading.class, ModConfig.class);
+    private static final Field CONFIG_WRAPPER_CONFIG = findField(UnmodifiableConfigWrapper.class, "config");
+    private static final Field VALUE_SPEC_RANGE = findField(ForgeConfigSpec.ValueSpec.class, "range");
+    private static final Field RANGE_MIN = findField(ForgeConfigSpec.Range.class, "min");
+    private static final Field RANGE_MAX = findField(ForgeConfigSpec.Range.class, "max");
+    private static final List<Consumer<IModConfig>> RELOAD_LISTENERS = new CopyOnWriteArrayList<>();
 
     /**
      * Determines if the given ModConfig differs compared to it's default values.
@@ -51,7 +62,7 @@ public class ConfigHelper
      */
     public static boolean isModified(IModConfig config)
     {
-        return gatherAllConfigValues(config).stream().anyMatch(T -> !T.isDefault());
+        return config.isModified();
     }
 
     /**
@@ -128,11 +139,25 @@ public class ConfigHelper
      * @param configData the new data for the config
      */
     public static void setConfigData(ModConfig config, @Nullable CommentedConfig configData)
+    {
+        setConfigData(config, configData, true);
+    }
+
+    /**
+     * Sets the data of a config without necessarily writing it to its file. Data that was just read
+     * by the file handler of the config doesn't need to be saved, since the handler already corrects
+     * and saves the file when it's read.
+     *
+     * @param config     the config to update
+     * @param configData the new data for the config
+     * @param save       if the data should be written to the file of the config
+     */
+    public static void setConfigData(ModConfig config, @Nullable CommentedConfig configData, boolean save)
     {
         try
         {
             MOD_CONFIG_SET_CONFIG_DATA.invoke(config, configData);
-            if(configData instanceof FileConfig)
+            if(save && configData instanceof FileConfig)
             {
                 config.save();
             }
@@ -143,6 +168,51 @@ public class ConfigHelper
         }
     }
 
+    /**
+     * Writes the given changes into the data of the mod config and saves it. Only the changed keys
+     * are touched, the rest of the data is left as is. Night Config's autosave wrapper writes the
+     * file after every change, so the changes are applied to the wrapped config instead and the
+     * file is written once by the {@link ConfigWriter} in the background.
+     *
+     * @param config  the config to update
+     * @param changes a map of config paths to their new values
+     */
+    public static void saveChanges(ModConfig config, Map<List<String>, Object> changes)
+    {
+        CommentedConfig configData = config.getConfigData();
+        if(configData == null)
+            return;
+        CommentedConfig target = unwrapConfig(configData);
+        // The writer serializes the config while holding the same lock
+        synchronized(configData)
+        {
+            changes.forEach(target::set);
+        }
+        if(configData instanceof FileConfig)
+        {
+            ConfigWriter.save((FileConfig) configData);
+        }
+    }
+
+    /**
+     * Gets the innermost config of the given config if it's wrapped, otherwise the config itself.
+     */
+    private static CommentedConfig unwrapConfig(CommentedConfig config)
+    {
+        try
+        {
+            while(config instanceof UnmodifiableConfigWrapper)
+            {
+                config = (CommentedConfig) CONFIG_WRAPPER_CONFIG.get(config);
+            }
+        }
+        catch(IllegalAccessException | ClassCastException e)
+        {
+            e.printStackTrace();
+        }
+        return config;
+    }
+
     /**
      * Gets the mod config for the given file name. Uses reflection to obtain the config map.
      *
@@ -156,6 +226,17 @@ public class ConfigHelper
         return configMap != null ? configMap.get(fileName) : null;
     }
 
+    /**
+     * Gets all mod configs that are registered with the config tracker.
+     *
+     * @return the mod configs
+     */
+    public static Collection<ModConfig> getModConfigs()
+    {
+        ConcurrentHashMap<String, ModConfig> configMap = ObfuscationReflectionHelper.getPrivateValue(ConfigTracker.class, ConfigTracker.INSTANCE, "fileMap");
+        return configMap != null ? configMap.values() : Collections.emptyList();
+    }
+
     /**
      * A helper method to fire config event. Since Forge has hidden these calls (which is fine), the
      * only way to call them is to call them is by using reflection.
@@ -189,6 +270,53 @@ public class ConfigHelper
         return null;
     }
 
+    /**
+     * Adds a listener that is called after a config has been saved or reloaded by Configured
+     *
+     * @param listener the listener to add
+     */
+    public static void addReloadListener(Consumer<IModConfig> listener)
+    {
+        RELOAD_LISTENERS.add(listener);
+    }
+
+    /**
+     * Adds a listener for the config events of the given config, which Forge fires to the owning
+     * mod when the config is loaded, reloaded by its file watcher or synced from a server. These
+     * don't go through Configured, and the file watcher loads into the same config data, so the
+     * event is the only way to notice them.
+     *
+     * @param config   the config to listen to
+     * @param listener the listener, called on the thread that fired the event
+     */
+    public static void addConfigEventListener(ModConfig config, Consumer<ModConfig.ModConfigEvent> listener)
+    {
+        ModList.get().getModContainerById(config.getModId()).ifPresent(container ->
+        {
+            if(container instanceof FMLModContainer)
+            {
+                ((FMLModContainer) container).getEventBus().addListener(EventPriority.HIGHEST, false, ModConfig.ModConfigEvent.class, event ->
+                {
+                    if(event.getConfig() == config)
+                    {
+                        listener.accept(event);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Notifies the reload listeners that the given config has been saved or reloaded. Should be
+     * called by {@link IModConfig} implementations once the new data is in place.
+     *
+     * @param config the config that was reloaded
+     */
+    public static void notifyReload(IModConfig config)
+    {
+        RELOAD_LISTENERS.forEach(listener -> listener.accept(config));
+    }
+
     /**
      * Resets the spec cache for the given mod config
      *
@@ -199,6 +327,82 @@ public class ConfigHelper
         gatherAllConfigValues(config).forEach(IConfigValue::cleanCache);
     }
 
+    /**
+     * Gets the minimum and maximum of a value spec that was defined with a range. Forge does not
+     * expose the range, so this should only be called once per value and the result kept.
+     *
+     * @param valueSpec the value spec to get the range of
+     * @param <V>       the type of the value
+     * @return a pair of the minimum and maximum, or null if the value spec has no range or it could
+     *         not be read
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static <V extends Comparable<? super V>> Pair<V, V> getRange(ForgeConfigSpec.ValueSpec valueSpec)
+    {
+        try
+        {
+            Object range = VALUE_SPEC_RANGE.get(valueSpec);
+            if(range == null)
+                return null;
+            return Pair.of((V) RANGE_MIN.get(range), (V) RANGE_MAX.get(range));
+        }
+        catch(IllegalAccessException e)
+        {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Finds the constant of an enum by name, ignoring case, the same way Forge reads enum values
+     * from a config file.
+     *
+     * @param enumClass the class of the enum
+     * @param name      the name of the constant
+     * @return the constant or null if the enum has no constant with the name
+     */
+    @Nullable
+    public static Enum<?> findEnumConstant(Class<? extends Enum<?>> enumClass, String name)
+    {
+        for(Enum<?> constant : enumClass.getEnumConstants())
+        {
+            if(constant.name().equalsIgnoreCase(name))
+            {
+                return constant;
+            }
+        }
+        return null;
+    }
+
+    private static Method findMethod(Class<?> clazz, String name, Class<?>... parameterTypes)
+    {
+        try
+        {
+            Method method = clazz.getDeclaredMethod(name, parameterTypes);
+            method.setAccessible(true);
+            return method;
+        }
+        catch(NoSuchMethodException e)
+        {
+            throw new ObfuscationReflectionHelper.UnableToFindMethodException(e);
+        }
+    }
+
+    private static Field findField(Class<?> clazz, String name)
+    {
+        try
+        {
+            Field field = clazz.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        }
+        catch(NoSuchFieldException e)
+        {
+            throw new ObfuscationReflectionHelper.UnableToFindFieldException(e);
+        }
+    }
+
     @Nullable
     public static ForgeConfigSpec findForgeConfigSpec(UnmodifiableConfig config)
     {
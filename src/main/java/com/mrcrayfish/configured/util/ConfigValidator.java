@@ -0,0 +1,376 @@
+package com.mrcrayfish.configured.util;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.MapMaker;
+import com.mrcrayfish.configured.Configured;
+import com.mrcrayfish.configured.api.IConfigValue;
+import com.mrcrayfish.configured.api.IModConfig;
+import com.mrcrayfish.configured.impl.ForgeConfig;
+import net.minecraftforge.common.ForgeConfigSpec;
+import org.apache.commons.lang3.tuple.Pair;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Validates the current values of many configs at once, for example to check all configs of a
+ * modpack when the game starts. Each Forge config spec is compiled once into a list of checks,
+ * where values defined with a range are tested with primitive comparisons instead of going through
+ * the spec. Configs are validated in parallel on a dedicated fork join pool. Configs that are not
+ * loaded, such as server configs in the main menu, are skipped.
+ */
+public class ConfigValidator
+{
+    private static final ForkJoinPool POOL = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), pool ->
+    {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("Configured Validator " + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }, null, false);
+    private static final Map<ForgeConfigSpec, CompiledSpec> COMPILED_SPECS = new MapMaker().weakKeys().makeMap();
+
+    /**
+     * Validates the given configs on the validator pool without blocking the calling thread.
+     *
+     * @param configs the configs to validate
+     * @return a future that completes with the report
+     */
+    public static CompletableFuture<Report> validateAsync(Collection<? extends IModConfig> configs)
+    {
+        List<IModConfig> copy = ImmutableList.copyOf(configs);
+        return CompletableFuture.supplyAsync(() -> validate(copy), POOL);
+    }
+
+    /**
+     * Validates the given configs and waits for the report. The configs are validated in parallel.
+     *
+     * @param configs the configs to validate
+     * @return the report
+     */
+    public static Report validate(Collection<? extends IModConfig> configs)
+    {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        // A parallel stream started from a task of the pool runs on that pool instead of the common pool
+        List<Result> results = POOL.submit(() -> configs.parallelStream().map(ConfigValidator::validateConfig).collect(Collectors.toList())).join();
+        return new Report(results, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+    }
+
+    private static Result validateConfig(IModConfig config)
+    {
+        try
+        {
+            if(config instanceof ForgeConfig)
+            {
+                ForgeConfig forgeConfig = (ForgeConfig) config;
+                CommentedConfig data = forgeConfig.getModConfig().getConfigData();
+                if(data == null)
+                    return Result.skipped();
+                CompiledSpec spec = COMPILED_SPECS.computeIfAbsent(forgeConfig.getSpec(), CompiledSpec::new);
+                return spec.validate(config.getFileName(), data);
+            }
+            return validateGeneric(config);
+        }
+        catch(Exception e)
+        {
+            Configured.LOGGER.error("Failed to validate config {}", config.getFileName(), e);
+            return Result.skipped();
+        }
+    }
+
+    /**
+     * Validates configs of other formats through the values of their tree
+     */
+    @SuppressWarnings("unchecked")
+    private static Result validateGeneric(IModConfig config)
+    {
+        List<Issue> issues = new ArrayList<>();
+        List<IConfigValue<?>> values = ConfigHelper.gatherAllConfigValues(config);
+        for(IConfigValue<?> value : values)
+        {
+            IConfigValue<Object> holder = (IConfigValue<Object>) value;
+            Object current = holder.get();
+            if(!holder.isValid(current))
+            {
+                issues.add(new Issue(config.getFileName(), value.getPath(), current, Reason.INVALID, null));
+            }
+        }
+        return new Result(values.size(), issues, false);
+    }
+
+    public enum Reason
+    {
+        /** The value is missing from the config data */
+        MISSING,
+        /** The value is not of the type of the default value */
+        WRONG_TYPE,
+        /** The value is outside of the range of the spec */
+        OUT_OF_RANGE,
+        /** The value was rejected by the validator of the spec */
+        INVALID
+    }
+
+    /**
+     * A value that failed validation
+     */
+    public static class Issue
+    {
+        private final String fileName;
+        private final String path;
+        private final Object value;
+        private final Reason reason;
+        private final String expected;
+
+        private Issue(String fileName, String path, @Nullable Object value, Reason reason, @Nullable String expected)
+        {
+            this.fileName = fileName;
+            this.path = path;
+            this.value = value;
+            this.reason = reason;
+            this.expected = expected;
+        }
+
+        public String getFileName()
+        {
+            return this.fileName;
+        }
+
+        public String getPath()
+        {
+            return this.path;
+        }
+
+        @Nullable
+        public Object getValue()
+        {
+            return this.value;
+        }
+
+        public Reason getReason()
+        {
+            return this.reason;
+        }
+
+        /**
+         * @return a description of the expected value, such as the range, if known
+         */
+        @Nullable
+        public String getExpected()
+        {
+            return this.expected;
+        }
+
+        @Override
+        public String toString()
+        {
+            String s = this.fileName + " -> " + this.path + " = " + this.value + " (" + this.reason.name().toLowerCase() + ")";
+            return this.expected != null ? s + ", expected " + this.expected : s;
+        }
+    }
+
+    /**
+     * The result of validating a set of configs
+     */
+    public static class Report
+    {
+        private final List<Issue> issues;
+        private final int configCount;
+        private final int skippedCount;
+        private final int valueCount;
+        private final long durationMs;
+
+        private Report(List<Result> results, long durationMs)
+        {
+            ImmutableList.Builder<Issue> issues = ImmutableList.builder();
+            int configCount = 0;
+            int skippedCount = 0;
+            int valueCount = 0;
+            for(Result result : results)
+            {
+                if(result.skipped)
+                {
+                    skippedCount++;
+                    continue;
+                }
+                configCount++;
+                valueCount += result.valueCount;
+                issues.addAll(result.issues);
+            }
+            this.issues = issues.build();
+            this.configCount = configCount;
+            this.skippedCount = skippedCount;
+            this.valueCount = valueCount;
+            this.durationMs = durationMs;
+        }
+
+        public List<Issue> getIssues()
+        {
+            return this.issues;
+        }
+
+        public boolean isValid()
+        {
+            return this.issues.isEmpty();
+        }
+
+        public int getConfigCount()
+        {
+            return this.configCount;
+        }
+
+        public int getSkippedCount()
+        {
+            return this.skippedCount;
+        }
+
+        public int getValueCount()
+        {
+            return this.valueCount;
+        }
+
+        public long getDurationMs()
+        {
+            return this.durationMs;
+        }
+
+        /**
+         * Logs a summary of the report and every issue
+         */
+        public void log()
+        {
+            Configured.LOGGER.info("Validated {} values in {} configs in {}ms ({} not loaded)", this.valueCount, this.configCount, this.durationMs, this.skippedCount);
+            if(!this.issues.isEmpty())
+            {
+                Configured.LOGGER.warn("Found {} invalid config value(s):", this.issues.size());
+                this.issues.forEach(issue -> Configured.LOGGER.warn("  {}", issue));
+            }
+        }
+    }
+
+    private static class Result
+    {
+        private final int valueCount;
+        private final List<Issue> issues;
+        private final boolean skipped;
+
+        private Result(int valueCount, List<Issue> issues, boolean skipped)
+        {
+            this.valueCount = valueCount;
+            this.issues = issues;
+            this.skipped = skipped;
+        }
+
+        private static Result skipped()
+        {
+            return new Result(0, ImmutableList.of(), true);
+        }
+    }
+
+    /**
+     * A test of a single value. Returns null if the value is valid, otherwise the reason it is not.
+     */
+    private interface Check
+    {
+        @Nullable
+        Reason test(Object value);
+    }
+
+    /**
+     * The checks of every value in a spec, in the order the values are defined
+     */
+    private static class CompiledSpec
+    {
+        private final List<List<String>> paths = new ArrayList<>();
+        private final List<String> joinedPaths = new ArrayList<>();
+        private final List<Check> checks = new ArrayList<>();
+        private final List<String> expected = new ArrayList<>();
+
+        private CompiledSpec(ForgeConfigSpec spec)
+        {
+            for(Pair<ForgeConfigSpec.ConfigValue<?>, ForgeConfigSpec.ValueSpec> pair : ConfigHelper.gatherAllForgeConfigValues(spec.getValues(), spec))
+            {
+                List<String> path = pair.getLeft().getPath();
+                ForgeConfigSpec.ValueSpec valueSpec = pair.getRight();
+                Pair<?, ?> range = ConfigHelper.getRange(valueSpec);
+                this.paths.add(path);
+                this.joinedPaths.add(String.join(".", path));
+                this.checks.add(compile(valueSpec, range));
+                this.expected.add(range != null ? "[" + range.getLeft() + ", " + range.getRight() + "]" : null);
+            }
+        }
+
+        private static Check compile(ForgeConfigSpec.ValueSpec valueSpec, @Nullable Pair<?, ?> range)
+        {
+            Object defaultValue = valueSpec.getDefault();
+            if(range != null && defaultValue instanceof Integer)
+            {
+                int min = (Integer) range.getLeft();
+                int max = (Integer) range.getRight();
+                return value ->
+                {
+                    if(!(value instanceof Integer)) return Reason.WRONG_TYPE;
+                    int i = (Integer) value;
+                    return i >= min && i <= max ? null : Reason.OUT_OF_RANGE;
+                };
+            }
+            if(range != null && defaultValue instanceof Long)
+            {
+                long min = (Long) range.getLeft();
+                long max = (Long) range.getRight();
+                return value ->
+                {
+                    // Night config reads small numbers as integers, which Forge converts when the value is read
+                    if(!(value instanceof Long) && !(value instanceof Integer)) return Reason.WRONG_TYPE;
+                    long l = ((Number) value).longValue();
+                    return l >= min && l <= max ? null : Reason.OUT_OF_RANGE;
+                };
+            }
+            if(range != null && defaultValue instanceof Double)
+            {
+                double min = (Double) range.getLeft();
+                double max = (Double) range.getRight();
+                return value ->
+                {
+                    if(!(value instanceof Double)) return Reason.WRONG_TYPE;
+                    double d = (Double) value;
+                    return d >= min && d <= max ? null : Reason.OUT_OF_RANGE;
+                };
+            }
+            return value -> valueSpec.test(value) ? null : Reason.INVALID;
+        }
+
+        private Result validate(String fileName, CommentedConfig data)
+        {
+            // Read all values at once, so the lock that Configured writes under is held briefly
+            Object[] values = new Object[this.paths.size()];
+            synchronized(data)
+            {
+                for(int i = 0; i < values.length; i++)
+                {
+                    values[i] = data.get(this.paths.get(i));
+                }
+            }
+            List<Issue> issues = new ArrayList<>(0);
+            for(int i = 0; i < values.length; i++)
+            {
+                Object value = values[i];
+                Reason reason = value != null ? this.checks.get(i).test(value) : Reason.MISSING;
+                if(reason != null)
+                {
+                    issues.add(new Issue(fileName, this.joinedPaths.get(i), value, reason, this.expected.get(i)));
+                }
+            }
+            return new Result(values.length, issues, false);
+        }
+    }
+}
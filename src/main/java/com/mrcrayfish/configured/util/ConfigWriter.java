@@ -0,0 +1,217 @@
+package com.mrcrayfish.configured.util;
+
+import com.electronwill.nightconfig.core.file.FileConfig;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mrcrayfish.configured.Configured;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes config files on a background thread. Saves of the same file that happen within a short
+ * window are coalesced into a single write, and writes are skipped if the serialized config is the
+ * same as the content already on disk. Files are written to a temporary file first and then moved
+ * over the original, so a crash during a write can not leave a truncated config behind.
+ * <p>
+ * The config is serialized while holding its monitor, so changes to the config should be made
+ * while synchronized on it (see {@link ConfigHelper#saveChanges}).
+ */
+public class ConfigWriter
+{
+    private static final long COALESCE_WINDOW_MS = 250;
+    private static final long MODIFIED_TIME_GRANULARITY_MS = 2000;
+
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("Configured Config Writer").setDaemon(true).build());
+    private static final Map<Path, PendingWrite> PENDING = new ConcurrentHashMap<>();
+    private static final Map<Path, DiskState> DISK_STATES = new ConcurrentHashMap<>();
+
+    static
+    {
+        // Pending writes would otherwise be lost when the game is closed within the window
+        Runtime.getRuntime().addShutdownHook(new Thread(ConfigWriter::flushAll, "Configured Config Writer Shutdown"));
+    }
+
+    /**
+     * Schedules the given config to be written to its file. If a write of the same file is already
+     * scheduled, it will write the given config instead and no new write is scheduled.
+     *
+     * @param config the config to write
+     */
+    public static void save(FileConfig config)
+    {
+        Path file = config.getNioPath().toAbsolutePath();
+        PendingWrite write = PENDING.computeIfAbsent(file, path ->
+        {
+            PendingWrite pending = new PendingWrite(path, config);
+            EXECUTOR.schedule(() -> run(pending), COALESCE_WINDOW_MS, TimeUnit.MILLISECONDS);
+            return pending;
+        });
+        write.config = config;
+    }
+
+    /**
+     * Immediately writes the file if a write is scheduled for it. This should be called before the
+     * file is read, so changes that have not been written yet are not lost.
+     *
+     * @param file the path of the file
+     */
+    public static void flush(Path file)
+    {
+        PendingWrite write = PENDING.remove(file.toAbsolutePath());
+        if(write != null)
+        {
+            write(write);
+        }
+    }
+
+    /**
+     * Immediately writes all scheduled files.
+     */
+    public static void flushAll()
+    {
+        PENDING.keySet().forEach(ConfigWriter::flush);
+    }
+
+    private static void run(PendingWrite write)
+    {
+        // The write may have already been done by a flush
+        if(PENDING.remove(write.file, write))
+        {
+            write(write);
+        }
+    }
+
+    private static synchronized void write(PendingWrite write)
+    {
+        FileConfig config = write.config;
+        if(config == null)
+            return;
+        try
+        {
+            writeFile(write.file, config);
+        }
+        catch(IOException e)
+        {
+            Configured.LOGGER.error("Failed to write config file {}", write.file, e);
+        }
+    }
+
+    /**
+     * Immediately writes the given config to its file on the calling thread, with the same checks
+     * as a scheduled write. Used when the caller needs to know that the file was written, for
+     * example when editing the configs of many worlds.
+     *
+     * @param config the config to write
+     * @throws IOException if the file could not be written
+     */
+    public static synchronized void writeNow(FileConfig config) throws IOException
+    {
+        // Holds the same lock as scheduled writes so they can not interleave on the temporary file
+        Path file = config.getNioPath().toAbsolutePath();
+        flush(file);
+        writeFile(file, config);
+    }
+
+    private static void writeFile(Path file, FileConfig config) throws IOException
+    {
+        long start = PerformanceMetrics.start();
+        String content;
+        synchronized(config)
+        {
+            content = config.configFormat().createWriter().writeToString(config);
+        }
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        HashCode hash = Hashing.murmur3_128().hashBytes(bytes);
+        try
+        {
+            DiskState state = getDiskState(file);
+            if(state != null && hash.equals(state.hash))
+            {
+                PerformanceMetrics.stop(PerformanceMetrics.Timer.SAVE_WRITE, start, file.getFileName().toString());
+                return;
+            }
+
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(temp, bytes);
+            try
+            {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            catch(AtomicMoveNotSupportedException e)
+            {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            DISK_STATES.put(file, new DiskState(hash, attributes.lastModifiedTime().toMillis(), attributes.size()));
+            PerformanceMetrics.stop(PerformanceMetrics.Timer.SAVE_WRITE, start, file.getFileName().toString());
+        }
+        catch(IOException e)
+        {
+            DISK_STATES.remove(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the hash of the content currently on disk. The file is only read again if it has been
+     * modified since it was last written or read by this writer, for example by a mod saving its
+     * own config. Some file systems only store the modified time in steps of up to two seconds, so
+     * an edit made right after the last write can keep the same time. The cached hash is therefore
+     * only trusted if the size matches and the modified time is older than that.
+     */
+    @Nullable
+    private static DiskState getDiskState(Path file) throws IOException
+    {
+        if(!Files.exists(file))
+            return null;
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long modified = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+        DiskState state = DISK_STATES.get(file);
+        if(state == null || state.modified != modified || state.size != size || System.currentTimeMillis() - modified < MODIFIED_TIME_GRANULARITY_MS)
+        {
+            state = new DiskState(Hashing.murmur3_128().hashBytes(Files.readAllBytes(file)), modified, size);
+            DISK_STATES.put(file, state);
+        }
+        return state;
+    }
+
+    private static class PendingWrite
+    {
+        private final Path file;
+        private volatile FileConfig config;
+
+        private PendingWrite(Path file, FileConfig config)
+        {
+            this.file = file;
+            this.config = config;
+        }
+    }
+
+    private static class DiskState
+    {
+        private final HashCode hash;
+        private final long modified;
+        private final long size;
+
+        private DiskState(HashCode hash, long modified, long size)
+        {
+            this.hash = hash;
+            this.modified = modified;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.mrcrayfish.configured.util;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * 64-bit hashes of config values. Values with different fingerprints are never equal, so comparing
+ * fingerprints first avoids comparing large lists element by element. Integral numbers have the
+ * same fingerprint regardless of their boxed type, and enums have the fingerprint of their name,
+ * so values read from a config file can be compared before they are converted.
+ */
+public class Fingerprint
+{
+    private static final long NULL = 0x9E3779B97F4A7C15L;
+    private static final long TRUE = mix(1L);
+    private static final long FALSE = mix(2L);
+
+    public static long of(@Nullable Object value)
+    {
+        if(value == null)
+            return NULL;
+        if(value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)
+            return ofLong(((Number) value).longValue());
+        if(value instanceof Double)
+            return ofDouble((Double) value);
+        if(value instanceof Boolean)
+            return ofBoolean((Boolean) value);
+        if(value instanceof Enum)
+            return mix(((Enum<?>) value).name().hashCode());
+        if(value instanceof List)
+        {
+            List<?> list = (List<?>) value;
+            long hash = mix(list.size());
+            for(Object element : list)
+            {
+                hash = mix(hash * 31 + of(element));
+            }
+            return hash;
+        }
+        return mix(value.hashCode());
+    }
+
+    public static long ofLong(long value)
+    {
+        return mix(value);
+    }
+
+    public static long ofDouble(double value)
+    {
+        return mix(Double.doubleToLongBits(value) ^ 0x5851F42D4C957F2DL);
+    }
+
+    public static long ofBoolean(boolean value)
+    {
+        return value ? TRUE : FALSE;
+    }
+
+    /**
+     * The finalizer of SplitMix64, spreads every input bit over the whole result
+     */
+    private static long mix(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
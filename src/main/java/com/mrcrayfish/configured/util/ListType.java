@@ -0,0 +1,133 @@
+package com.mrcrayfish.configured.util;
+
+import com.google.common.collect.MapMaker;
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
+import com.mrcrayfish.configured.api.IConfigValue;
+import net.minecraftforge.common.ForgeConfigSpec;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * The type of the elements of a list config value, used to convert elements to and from text when
+ * editing the list. The type of a Forge value spec is inferred once and cached for as long as the
+ * spec exists, so it is shared by every value holder created for it.
+ */
+public enum ListType
+{
+    BOOLEAN(Object::toString, Boolean::valueOf),
+    INTEGER(Object::toString, Ints::tryParse),
+    LONG(Object::toString, Longs::tryParse),
+    DOUBLE(Object::toString, Doubles::tryParse),
+    STRING(Object::toString, o -> o),
+    UNKNOWN(Object::toString, o -> o);
+
+    private static final Map<ForgeConfigSpec.ValueSpec, ListType> SPEC_CACHE = new MapMaker().weakKeys().makeMap();
+
+    final Function<Object, String> stringParser;
+    final Function<String, ?> valueParser;
+
+    ListType(Function<Object, String> stringParser, Function<String, ?> valueParser)
+    {
+        this.stringParser = stringParser;
+        this.valueParser = valueParser;
+    }
+
+    public Function<Object, String> getStringParser()
+    {
+        return this.stringParser;
+    }
+
+    public Function<String, ?> getValueParser()
+    {
+        return this.valueParser;
+    }
+
+    /**
+     * Gets the type of the list defined by the given value spec. The type is only inferred the first
+     * time a spec is seen.
+     *
+     * @param valueSpec the value spec of a list
+     * @return the type of the list
+     */
+    public static ListType fromSpec(ForgeConfigSpec.ValueSpec valueSpec)
+    {
+        return SPEC_CACHE.computeIfAbsent(valueSpec, spec -> infer((List<?>) spec.getDefault(), spec::test));
+    }
+
+    /**
+     * Infers the type of the list of a value holder. Unlike {@link #fromSpec(ForgeConfigSpec.ValueSpec)}
+     * this is not cached, since holders are recreated every time a config screen is opened.
+     *
+     * @param holder the holder of a list
+     * @return the type of the list
+     */
+    public static ListType fromHolder(IConfigValue<List<?>> holder)
+    {
+        return infer(holder.getDefault(), list -> holder.isValid((List<?>) list));
+    }
+
+    private static ListType infer(List<?> defaultList, Predicate<Object> validator)
+    {
+        ListType type = UNKNOWN;
+        if(!defaultList.isEmpty())
+        {
+            type = fromObject(defaultList.get(0));
+        }
+        if(type == UNKNOWN)
+        {
+            type = fromElementValidator(validator);
+        }
+        return type;
+    }
+
+    public static ListType fromObject(Object o)
+    {
+        if(o instanceof Boolean)
+        {
+            return BOOLEAN;
+        }
+        else if(o instanceof Integer)
+        {
+            return INTEGER;
+        }
+        else if(o instanceof Long)
+        {
+            return LONG;
+        }
+        else if(o instanceof Double)
+        {
+            return DOUBLE;
+        }
+        else if(o instanceof String)
+        {
+            return STRING;
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Attempts to determine the type of list from the element validator. This currently
+     * used as a last resort since validation may fail even though it's the correct type.
+     * It may also return the incorrect type if the validator accepts everything.
+     */
+    private static ListType fromElementValidator(Predicate<Object> validator)
+    {
+        if(validator.test(Collections.singletonList("s")))
+            return STRING;
+        if(validator.test(Collections.singletonList(true)))
+            return BOOLEAN;
+        if(validator.test(Collections.singletonList(0.0D)))
+            return DOUBLE;
+        if(validator.test(Collections.singletonList(0L)))
+            return LONG;
+        if(validator.test(Collections.singletonList(0)))
+            return INTEGER;
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,233 @@
+package com.mrcrayfish.configured.util;
+
+import com.mrcrayfish.configured.Configured;
+
+import javax.annotation.Nullable;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timers for the parts of Configured that can make config screens feel slow, so they can be told
+ * apart from the cost of other mods. Timers are disabled by default, in which case measuring only
+ * costs a read of a volatile field. They are enabled with <code>-Dconfigured.metrics=true</code>
+ * or through the <code>Enabled</code> attribute of the <code>com.mrcrayfish.configured:type=Metrics</code>
+ * MBean.
+ * <p>
+ * Every timer is exposed as an MBean of the type <code>Timer</code>. If the runtime supports Java
+ * Flight Recorder, every measurement is also committed as a <code>com.mrcrayfish.configured.Timing</code>
+ * event, which is only recorded if the event is enabled in the recording settings.
+ * <pre>{@code
+ * long start = PerformanceMetrics.start();
+ * ...
+ * PerformanceMetrics.stop(PerformanceMetrics.Timer.SAVE_APPLY, start, fileName);
+ * }</pre>
+ */
+public class PerformanceMetrics
+{
+    private static final String DOMAIN = "com.mrcrayfish.configured";
+    private static final Stats[] STATS = new Stats[Timer.values().length];
+    private static volatile boolean enabled = Boolean.getBoolean("configured.metrics");
+
+    static
+    {
+        for(Timer timer : Timer.values())
+        {
+            STATS[timer.ordinal()] = new Stats();
+        }
+    }
+
+    public enum Timer
+    {
+        /** Finding the configs of a mod when the config factories are generated */
+        FACTORY_GENERATION,
+        /** Initialising a list menu screen, including constructing its entries */
+        SCREEN_INIT,
+        /** Constructing the entries of a list menu screen */
+        CONSTRUCT_ENTRIES,
+        /** Filtering entries with the search field of a screen or the global search */
+        SEARCH,
+        /** Copying the changed values of a config into a map of changes */
+        SAVE_COPY,
+        /** Applying the changes to the data of a config */
+        SAVE_APPLY,
+        /** Serializing and writing a config file */
+        SAVE_WRITE,
+        /** Posting change events, reloading events and notifying reload listeners */
+        RELOAD_DISPATCH
+    }
+
+    /**
+     * Starts a measurement
+     *
+     * @return the start time, or zero if timers are disabled
+     */
+    public static long start()
+    {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Stops a measurement
+     *
+     * @param timer the timer to record the measurement to
+     * @param start the value returned by {@link #start()}
+     */
+    public static void stop(Timer timer, long start)
+    {
+        stop(timer, start, null);
+    }
+
+    /**
+     * Stops a measurement
+     *
+     * @param timer  the timer to record the measurement to
+     * @param start  the value returned by {@link #start()}
+     * @param detail what was measured, such as a mod id or file name. Only used for JFR events.
+     */
+    public static void stop(Timer timer, long start, @Nullable String detail)
+    {
+        if(start == 0L)
+            return;
+        long duration = System.nanoTime() - start;
+        STATS[timer.ordinal()].record(duration);
+        TimingEvent.commit(timer.name(), detail, duration);
+    }
+
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled)
+    {
+        PerformanceMetrics.enabled = enabled;
+    }
+
+    /**
+     * Registers the MBeans of the timers with the platform MBean server, and logs whether the
+     * measurements are also recorded as Java Flight Recorder events
+     */
+    public static void registerMBeans()
+    {
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(DOMAIN + ":type=Metrics");
+            if(server.isRegistered(name))
+                return;
+            server.registerMBean(new StandardMBean(new Metrics(), MetricsMBean.class), name);
+            for(Timer timer : Timer.values())
+            {
+                ObjectName timerName = new ObjectName(DOMAIN + ":type=Timer,name=" + timer.name().toLowerCase(Locale.ENGLISH));
+                server.registerMBean(new StandardMBean(STATS[timer.ordinal()], TimerMBean.class), timerName);
+            }
+            Configured.LOGGER.info("Registered performance metrics MBeans, Java Flight Recorder events are {}", TimingEvent.isSupported() ? "available" : "not supported by this runtime");
+        }
+        catch(JMException | SecurityException e)
+        {
+            Configured.LOGGER.warn("Failed to register performance metrics MBeans", e);
+        }
+    }
+
+    public interface MetricsMBean
+    {
+        boolean isEnabled();
+
+        void setEnabled(boolean enabled);
+
+        /**
+         * Resets the measurements of every timer
+         */
+        void reset();
+    }
+
+    public interface TimerMBean
+    {
+        long getCount();
+
+        double getTotalMillis();
+
+        double getAverageMillis();
+
+        double getMaxMillis();
+
+        void reset();
+    }
+
+    private static class Metrics implements MetricsMBean
+    {
+        @Override
+        public boolean isEnabled()
+        {
+            return PerformanceMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled)
+        {
+            PerformanceMetrics.setEnabled(enabled);
+        }
+
+        @Override
+        public void reset()
+        {
+            for(Stats stats : STATS)
+            {
+                stats.reset();
+            }
+        }
+    }
+
+    private static class Stats implements TimerMBean
+    {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+        private void record(long nanos)
+        {
+            this.count.increment();
+            this.totalNanos.add(nanos);
+            this.maxNanos.accumulate(nanos);
+        }
+
+        @Override
+        public long getCount()
+        {
+            return this.count.sum();
+        }
+
+        @Override
+        public double getTotalMillis()
+        {
+            return this.totalNanos.sum() / 1_000_000.0;
+        }
+
+        @Override
+        public double getAverageMillis()
+        {
+            long count = this.count.sum();
+            return count > 0 ? this.totalNanos.sum() / 1_000_000.0 / count : 0.0;
+        }
+
+        @Override
+        public double getMaxMillis()
+        {
+            return this.maxNanos.get() / 1_000_000.0;
+        }
+
+        @Override
+        public void reset()
+        {
+            this.count.reset();
+            this.totalNanos.reset();
+            this.maxNanos.reset();
+        }
+    }
+}
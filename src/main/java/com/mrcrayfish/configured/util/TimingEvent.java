@@ -0,0 +1,118 @@
+package com.mrcrayfish.configured.util;
+
+import com.mrcrayfish.configured.Configured;
+
+import javax.annotation.Nullable;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A Java Flight Recorder event of a measurement of a {@link PerformanceMetrics} timer. The Flight
+ * Recorder API is not part of Java 8, so the event is defined at runtime with <code>jdk.jfr.EventFactory</code>
+ * through reflection. If the runtime doesn't support Java Flight Recorder, no event is defined and
+ * measurements are not committed.
+ */
+class TimingEvent
+{
+    private static final String JFR_PACKAGE = "jdk.jfr.";
+    private static final int TIMER = 0;
+    private static final int DETAIL = 1;
+    private static final int TIME = 2;
+
+    @Nullable
+    private static final TimingEvent INSTANCE = create();
+
+    private final MethodHandle newEvent;
+    private final MethodHandle shouldCommit;
+    private final MethodHandle set;
+    private final MethodHandle commit;
+
+    private TimingEvent(MethodHandle newEvent, MethodHandle shouldCommit, MethodHandle set, MethodHandle commit)
+    {
+        this.newEvent = newEvent;
+        this.shouldCommit = shouldCommit;
+        this.set = set;
+        this.commit = commit;
+    }
+
+    static boolean isSupported()
+    {
+        return INSTANCE != null;
+    }
+
+    static void commit(String timer, @Nullable String detail, long time)
+    {
+        if(INSTANCE == null)
+            return;
+        try
+        {
+            Object event = (Object) INSTANCE.newEvent.invokeExact();
+            if((boolean) INSTANCE.shouldCommit.invokeExact(event))
+            {
+                INSTANCE.set.invokeExact(event, TIMER, (Object) timer);
+                INSTANCE.set.invokeExact(event, DETAIL, (Object) detail);
+                INSTANCE.set.invokeExact(event, TIME, (Object) time);
+                INSTANCE.commit.invokeExact(event);
+            }
+        }
+        catch(Throwable e)
+        {
+            Configured.LOGGER.debug("Failed to commit timing event", e);
+        }
+    }
+
+    @Nullable
+    private static TimingEvent create()
+    {
+        try
+        {
+            Class<?> eventClass = Class.forName(JFR_PACKAGE + "Event");
+            Class<?> factoryClass = Class.forName(JFR_PACKAGE + "EventFactory");
+            Constructor<?> annotation = Class.forName(JFR_PACKAGE + "AnnotationElement").getConstructor(Class.class, Object.class);
+            Constructor<?> field = Class.forName(JFR_PACKAGE + "ValueDescriptor").getConstructor(Class.class, String.class, List.class);
+
+            List<Object> annotations = Arrays.asList(
+                annotation.newInstance(annotationClass("Name"), "com.mrcrayfish.configured.Timing"),
+                annotation.newInstance(annotationClass("Label"), "Configured Timing"),
+                annotation.newInstance(annotationClass("Category"), new String[]{"Configured"}),
+                annotation.newInstance(annotationClass("Description"), "Time spent in a part of Configured, such as building a config screen or saving a config"),
+                annotation.newInstance(annotationClass("StackTrace"), false));
+            // The order of the fields must match the indexes used to set them
+            List<Object> fields = Arrays.asList(
+                field.newInstance(String.class, "timer", Collections.singletonList(annotation.newInstance(annotationClass("Label"), "Timer"))),
+                field.newInstance(String.class, "detail", Collections.singletonList(annotation.newInstance(annotationClass("Label"), "Detail"))),
+                field.newInstance(long.class, "time", Arrays.asList(annotation.newInstance(annotationClass("Label"), "Time"), annotation.newInstance(annotationClass("Timespan"), "NANOSECONDS"))));
+            Object factory = factoryClass.getMethod("create", List.class, List.class).invoke(null, annotations, fields);
+            factoryClass.getMethod("register").invoke(factory);
+
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            MethodHandle newEvent = lookup.findVirtual(factoryClass, "newEvent", MethodType.methodType(eventClass)).bindTo(factory).asType(MethodType.methodType(Object.class));
+            MethodHandle shouldCommit = lookup.findVirtual(eventClass, "shouldCommit", MethodType.methodType(boolean.class)).asType(MethodType.methodType(boolean.class, Object.class));
+            MethodHandle set = lookup.findVirtual(eventClass, "set", MethodType.methodType(void.class, int.class, Object.class)).asType(MethodType.methodType(void.class, Object.class, int.class, Object.class));
+            MethodHandle commit = lookup.findVirtual(eventClass, "commit", MethodType.methodType(void.class)).asType(MethodType.methodType(void.class, Object.class));
+            return new TimingEvent(newEvent, shouldCommit, set, commit);
+        }
+        catch(ClassNotFoundException e)
+        {
+            // Java Flight Recorder is not supported by this runtime
+            return null;
+        }
+        catch(ReflectiveOperationException | LinkageError | RuntimeException e)
+        {
+            Configured.LOGGER.warn("Failed to define the Java Flight Recorder timing event", e);
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Annotation> annotationClass(String name) throws ClassNotFoundException
+    {
+        return (Class<? extends Annotation>) Class.forName(JFR_PACKAGE + name);
+    }
+}